@@ -0,0 +1,130 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti runtime benchmarks.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang.bench;
+
+import java.util.Random;
+import org.openjdk.jmh.infra.Blackhole;
+import yeti.lang.AIter;
+import yeti.lang.AList;
+import yeti.lang.Fun;
+import yeti.lang.Fun2;
+import yeti.lang.IntNum;
+import yeti.lang.LList;
+import yeti.lang.MList;
+import yeti.lang.Num;
+
+/** Functions and list builders shared by the list benchmarks. */
+final class BenchFuns {
+    static final Fun INC = new Fun() {
+        public Object apply(Object x) {
+            return ((Num) x).add(1);
+        }
+    };
+
+    static final Fun DOUBLE = new Fun() {
+        public Object apply(Object x) {
+            return ((Num) x).mul(2);
+        }
+    };
+
+    static final Fun EVEN = new Fun() {
+        public Object apply(Object x) {
+            return (((Num) x).longValue() & 1) == 0
+                        ? Boolean.TRUE : Boolean.FALSE;
+        }
+    };
+
+    static final Fun2 ADD = new Fun2() {
+        public Object apply(Object a, Object b) {
+            return ((Num) a).add((Num) b);
+        }
+    };
+
+    static final Fun2 LESS = new Fun2() {
+        public Object apply(Object a, Object b) {
+            return ((Num) a).compareTo(b) < 0 ? Boolean.TRUE : Boolean.FALSE;
+        }
+    };
+
+    private BenchFuns() {
+    }
+
+    /** Function that feeds every argument into the blackhole. */
+    static Fun sink(final Blackhole bh) {
+        return new Fun() {
+            public Object apply(Object x) {
+                bh.consume(x);
+                return null;
+            }
+        };
+    }
+
+    /** Walks the list through the AIter protocol, forcing lazy nodes. */
+    static void drain(AIter i, Blackhole bh) {
+        for (; i != null; i = i.next())
+            bh.consume(i.first());
+    }
+
+    /** Numbers 0 .. n - 1 in shuffled order, so sort has real work. */
+    static Object[] shuffled(int n) {
+        Object[] a = new Object[n];
+        for (int i = 0; i < n; ++i)
+            a[i] = new IntNum(i);
+        Random rnd = new Random(42);
+        for (int i = n; --i > 0;) {
+            int j = rnd.nextInt(i + 1);
+            Object t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+        return a;
+    }
+
+    static MList mlist(int n) {
+        return new MList(shuffled(n));
+    }
+
+    static AList llist(int n) {
+        Object[] a = shuffled(n);
+        AList l = null;
+        for (int i = a.length; --i >= 0;)
+            l = new LList(a[i], l);
+        return l;
+    }
+
+    static long[] longs(int n) {
+        long[] a = new long[n];
+        Random rnd = new Random(42);
+        for (int i = 0; i < n; ++i)
+            a[i] = rnd.nextInt(n);
+        return a;
+    }
+}
@@ -0,0 +1,105 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti runtime benchmarks.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang.bench;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import yeti.lang.AList;
+import yeti.lang.Fun;
+import yeti.lang.IntNum;
+import yeti.lang.ListRange;
+import yeti.lang.MList;
+import yeti.lang.PArray;
+import yeti.lang.compiler.Evaluator;
+
+/**
+ * Writes 1 GB into a temporary file through binWriteFile, as repeated
+ * writes of a 1 MB list. Byte, int and number arrays are copied into
+ * the output buffer in bulk, the range goes element by element.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BinWriteBench {
+    private static final int CHUNK = 1 << 20;
+
+    @Param({"bytes", "ints", "numbers", "range"})
+    public String source;
+
+    @Param({"1024"})
+    public int megabytes;
+
+    private Fun write;
+    private AList data;
+    private String path;
+
+    @Setup
+    public void setup() throws Exception {
+        File file = File.createTempFile("yeti-bench", ".bin");
+        file.deleteOnExit();
+        path = file.getPath();
+        if (source.equals("bytes")) {
+            data = PArray.wrap(new byte[CHUNK]);
+        } else if (source.equals("ints")) {
+            int[] a = new int[CHUNK];
+            for (int i = 0; i < CHUNK; ++i)
+                a[i] = i;
+            data = PArray.wrap(a);
+        } else if (source.equals("numbers")) {
+            Object[] a = new Object[CHUNK];
+            for (int i = 0; i < CHUNK; ++i)
+                a[i] = new IntNum(i & 255);
+            data = new MList(a);
+        } else {
+            data = ListRange.range(IntNum._0, new IntNum(CHUNK - 1), null);
+        }
+        write = (Fun) new Evaluator().evaluate(
+            "do path data:\n"
+          + "  binWriteFile path do w:\n"
+          + "    for [1 .. " + megabytes + "] do _: w data done\n"
+          + "  done\n"
+          + "done");
+    }
+
+    @TearDown
+    public void tearDown() {
+        new File(path).delete();
+    }
+
+    @Benchmark
+    public Object binWriteFile() {
+        return write.apply(path, data);
+    }
+}
@@ -0,0 +1,101 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti runtime benchmarks.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang.bench;
+
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import yeti.JSONWriter;
+
+/**
+ * JSON formatting of parsed document with given number of records,
+ * using the string function path (toString of JSONObj and lists)
+ * and JSONWriter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBench {
+    @Param({"10", "1000", "100000"})
+    public int records;
+
+    private Object doc;
+
+    // discards everything written to it
+    private static final Writer NULL_WRITER = new Writer() {
+        public void write(char[] buf, int off, int len) {
+        }
+
+        public void flush() {
+        }
+
+        public void close() {
+        }
+    };
+
+    @Setup
+    public void setup() throws Exception {
+        StringBuilder buf = new StringBuilder("[");
+        for (int i = 0; i < records; ++i) {
+            if (i != 0)
+                buf.append(',');
+            buf.append("{\"id\":").append(i)
+               .append(",\"name\":\"user \\\"").append(i)
+               .append("\\\"\\n\",\"score\":").append(i * 0.25)
+               .append(",\"tags\":[\"a\",\"b\",\"c\"],\"active\":")
+               .append((i & 1) == 0).append(",\"parent\":null}");
+        }
+        char[] json = buf.append(']').toString().toCharArray();
+        Method parse = Class.forName("yeti.JSONParser").getDeclaredMethod(
+                            "parse", char[].class, int.class, int.class);
+        parse.setAccessible(true);
+        doc = parse.invoke(null, json, 0, json.length);
+    }
+
+    @Benchmark
+    public String show() {
+        return doc.toString();
+    }
+
+    @Benchmark
+    public String toStringWriter() {
+        return JSONWriter.toString(doc);
+    }
+
+    @Benchmark
+    public void write() throws Exception {
+        JSONWriter.write(NULL_WRITER, doc);
+    }
+}
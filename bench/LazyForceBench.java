@@ -0,0 +1,83 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti runtime benchmarks.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import yeti.lang.AList;
+import yeti.lang.IntNum;
+import yeti.lang.ListRange;
+import yeti.lang.std;
+
+/**
+ * Per-element cost of forcing lazy list nodes, measured on
+ * map f (filter p [0 .. 9999999]). The forceChain benchmark walks fresh
+ * chain, so every step forces FilterList and MapList node, while
+ * walkForced walks a chain that has been already forced once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LazyForceBench {
+    static final int SIZE = 10000000;
+
+    private AList range;
+    private AList forced;
+
+    @Setup
+    public void setup() {
+        range = ListRange.range(IntNum._0, new IntNum(SIZE - 1), null);
+        forced = chain();
+        for (AList i = forced; i != null; i = i.rest())
+            ;
+    }
+
+    private AList chain() {
+        AList l = (AList) std.filter().apply(BenchFuns.EVEN, range);
+        return l.map(BenchFuns.INC);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void forceChain(Blackhole bh) {
+        BenchFuns.drain(chain(), bh);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void walkForced(Blackhole bh) {
+        BenchFuns.drain(forced, bh);
+    }
+}
@@ -0,0 +1,110 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti runtime benchmarks.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import yeti.lang.AList;
+import yeti.lang.FusedList;
+import yeti.lang.IntNum;
+import yeti.lang.ListRange;
+import yeti.lang.MList;
+import yeti.lang.std;
+
+/**
+ * Lazy list chains (MapList, FilterList and ConcatLists nodes),
+ * forced by walking the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LazyListBench {
+    @Param({"10", "10000", "10000000"})
+    public int size;
+
+    private AList range;
+    private AList chunks;
+
+    @Setup
+    public void setup() {
+        range = ListRange.range(IntNum._0, new IntNum(size - 1), null);
+        // 10 arrays of size / 10 elements, or single array for tiny sizes
+        int n = size >= 10 ? 10 : 1;
+        Object[] a = new Object[n];
+        for (int i = 0; i < n; ++i)
+            a[i] = BenchFuns.mlist(size / n);
+        chunks = new MList(a);
+    }
+
+    @Benchmark
+    public void map(Blackhole bh) {
+        BenchFuns.drain(range.map(BenchFuns.INC), bh);
+    }
+
+    @Benchmark
+    public void mapMapMap(Blackhole bh) {
+        BenchFuns.drain(range.map(BenchFuns.INC).map(BenchFuns.DOUBLE)
+                             .map(BenchFuns.INC), bh);
+    }
+
+    @Benchmark
+    public void mapFilterMap(Blackhole bh) {
+        AList l = (AList) std.filter().apply(BenchFuns.EVEN,
+                                             range.map(BenchFuns.INC));
+        BenchFuns.drain(l == null ? null : l.map(BenchFuns.DOUBLE), bh);
+    }
+
+    @Benchmark
+    public void fusedMapFilterMap(Blackhole bh) {
+        // what compiler generates for map f (filter p (map g xs))
+        BenchFuns.drain(FusedList.pipe(new Object[] { BenchFuns.DOUBLE,
+                    BenchFuns.EVEN, BenchFuns.INC, range }, "mfm"), bh);
+    }
+
+    @Benchmark
+    public void filter(Blackhole bh) {
+        BenchFuns.drain((AList) std.filter().apply(BenchFuns.EVEN, range), bh);
+    }
+
+    @Benchmark
+    public void concat(Blackhole bh) {
+        BenchFuns.drain((AList) std.concat().apply(chunks), bh);
+    }
+
+    @Benchmark
+    public Object foldMap() {
+        return range.map(BenchFuns.INC).fold(BenchFuns.ADD, IntNum._0);
+    }
+}
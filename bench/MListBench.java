@@ -0,0 +1,100 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti runtime benchmarks.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import yeti.lang.AList;
+import yeti.lang.IntNum;
+import yeti.lang.MList;
+import yeti.lang.std;
+
+/** Array ({@link MList}) operations. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MListBench {
+    @Param({"10", "10000", "10000000"})
+    public int size;
+
+    private MList list;
+    private Object last;
+
+    @Setup
+    public void setup() {
+        list = BenchFuns.mlist(size);
+        last = list.get(size - 1);
+    }
+
+    @Benchmark
+    public void forEach(Blackhole bh) {
+        list.forEach(BenchFuns.sink(bh));
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        BenchFuns.drain(list, bh);
+    }
+
+    @Benchmark
+    public Object fold() {
+        return list.fold(BenchFuns.ADD, IntNum._0);
+    }
+
+    @Benchmark
+    public AList map() {
+        return list.map(BenchFuns.INC);
+    }
+
+    @Benchmark
+    public void filter(Blackhole bh) {
+        BenchFuns.drain((AList) std.filter().apply(BenchFuns.EVEN, list), bh);
+    }
+
+    @Benchmark
+    public AList sort() {
+        return list.sort();
+    }
+
+    @Benchmark
+    public AList sortBy() {
+        return list.sort(BenchFuns.LESS);
+    }
+
+    @Benchmark
+    public Object index() {
+        return list.index(last);
+    }
+}
@@ -0,0 +1,110 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti runtime benchmarks.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import yeti.lang.AList;
+import yeti.lang.IntNum;
+import yeti.lang.PArray;
+
+/** Primitive array views ({@link PArray}) over long[] and byte[]. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PArrayBench {
+    @Param({"10", "10000", "10000000"})
+    public int size;
+
+    private AList longs;
+    private AList bytes;
+    private Object last;
+
+    @Setup
+    public void setup() {
+        long[] a = BenchFuns.longs(size);
+        byte[] b = new byte[size];
+        for (int i = 0; i < size; ++i)
+            b[i] = (byte) a[i];
+        longs = PArray.wrap(a);
+        bytes = PArray.wrap(b);
+        last = new IntNum(a[size - 1]);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        BenchFuns.drain(longs, bh);
+    }
+
+    @Benchmark
+    public void forEach(Blackhole bh) {
+        longs.forEach(BenchFuns.sink(bh));
+    }
+
+    @Benchmark
+    public Object fold() {
+        return longs.fold(BenchFuns.ADD, IntNum._0);
+    }
+
+    @Benchmark
+    public void map(Blackhole bh) {
+        BenchFuns.drain(longs.map(BenchFuns.INC), bh);
+    }
+
+    @Benchmark
+    public AList sort() {
+        return longs.sort();
+    }
+
+    @Benchmark
+    public Object index() {
+        return longs.index(last);
+    }
+
+    @Benchmark
+    public long takeDrop() {
+        return longs.take(size / 4, size / 2).length();
+    }
+
+    @Benchmark
+    public Object byteFold() {
+        return bytes.fold(BenchFuns.ADD, IntNum._0);
+    }
+
+    @Benchmark
+    public void byteIterate(Blackhole bh) {
+        BenchFuns.drain(bytes, bh);
+    }
+}
@@ -0,0 +1,94 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti runtime benchmarks.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import yeti.lang.Fun;
+import yeti.lang.IntNum;
+import yeti.lang.compiler.Evaluator;
+
+/**
+ * Building a report string out of lines. The accumulated variant uses
+ * s := s ^ x in a loop (compiled to append into a StrBuilder), builder
+ * uses the stringBuilder function, and join is the strJoin baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrAccumBench {
+    @Param({"100", "10000"})
+    public int size;
+
+    private Fun accumulated;
+    private Fun builder;
+    private Fun join;
+    private Object n;
+
+    @Setup
+    public void setup() throws Exception {
+        n = new IntNum(size);
+        accumulated = (Fun) new Evaluator().evaluate(
+            "do n:\n"
+          + "  var s = '';\n"
+          + "  for [1 .. n] do i: s := s ^ \"row \\(i): \\(i * 7)\\n\" done;\n"
+          + "  s\n"
+          + "done");
+        builder = (Fun) new Evaluator().evaluate(
+            "do n:\n"
+          + "  b = stringBuilder '';\n"
+          + "  for [1 .. n] do i: b.add \"row \\(i): \\(i * 7)\\n\" done;\n"
+          + "  b.string ()\n"
+          + "done");
+        join = (Fun) new Evaluator().evaluate(
+            "do n:\n"
+          + "  strJoin '' (map do i: \"row \\(i): \\(i * 7)\\n\" done [1 .. n])\n"
+          + "done");
+    }
+
+    @Benchmark
+    public Object accumulated() {
+        return accumulated.apply(n);
+    }
+
+    @Benchmark
+    public Object builder() {
+        return builder.apply(n);
+    }
+
+    @Benchmark
+    public Object join() {
+        return join.apply(n);
+    }
+}
@@ -0,0 +1,88 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti runtime benchmarks.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import yeti.lang.Fun;
+import yeti.lang.compiler.Evaluator;
+
+/**
+ * Fixed-width record parsing with strSlice. The sliced variant lets
+ * the compiler compare, trim and concatenate slices without creating
+ * substrings, the bound variant binds each slice to a name first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrSliceBench {
+    private static final String RECORD =
+        "AB  12345 John Smith          ABCD1234";
+
+    private Fun sliced;
+    private Fun bound;
+
+    @Setup
+    public void setup() throws Exception {
+        sliced = (Fun) new Evaluator().evaluate(
+            "do line:\n"
+          + "  if strSlice line 0 2 == 'AB' then\n"
+          + "    {id = strTrim (strSlice line 2 10),\n"
+          + "     name = strTrim (strSlice line 10 30),\n"
+          + "     key = \"\\(strSlice line 30 34)-\\(strSlice line 34 38)\"}\n"
+          + "  else {id = '', name = '', key = ''} fi\n"
+          + "done");
+        bound = (Fun) new Evaluator().evaluate(
+            "do line:\n"
+          + "  t = strSlice line 0 2;\n"
+          + "  if t == 'AB' then\n"
+          + "    id = strSlice line 2 10;\n"
+          + "    name = strSlice line 10 30;\n"
+          + "    a = strSlice line 30 34;\n"
+          + "    b = strSlice line 34 38;\n"
+          + "    {id = strTrim id, name = strTrim name, key = \"\\(a)-\\(b)\"}\n"
+          + "  else {id = '', name = '', key = ''} fi\n"
+          + "done");
+    }
+
+    @Benchmark
+    public Object sliced() {
+        return sliced.apply(RECORD);
+    }
+
+    @Benchmark
+    public Object bound() {
+        return bound.apply(RECORD);
+    }
+}
@@ -0,0 +1,119 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti runtime benchmarks.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import yeti.lang.Fun;
+import yeti.lang.GenericStruct;
+import yeti.lang.IntNum;
+import yeti.lang.Struct;
+import yeti.lang.compiler.Evaluator;
+
+/**
+ * Construction and field access by name of compiled Yeti structures
+ * with given number of fields, compared with GenericStruct, and field
+ * selection from compiled code where the structure shape is known.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StructBench {
+    @Param({"4", "16", "64"})
+    public int fields;
+
+    private Fun make;
+    private Fun select;
+    private String[] names;
+    private Struct struct;
+    private Struct generic;
+
+    @Setup
+    public void setup() throws Exception {
+        names = new String[fields];
+        StringBuilder code = new StringBuilder("do x: {");
+        Map values = new HashMap();
+        for (int i = 0; i < fields; ++i) {
+            names[i] = ("f" + i).intern();
+            code.append(i == 0 ? "" : ", ").append(names[i]).append(" = x");
+            values.put(names[i], "v");
+        }
+        make = (Fun) new Evaluator().evaluate(code.append("} done")
+                                                  .toString());
+        struct = (Struct) make.apply("v");
+        code.setLength(0);
+        code.append("s = {");
+        for (int i = 0; i < fields; ++i)
+            code.append(i == 0 ? "" : ", ").append(names[i]).append(" = ")
+                .append(i);
+        code.append("}; do x: s.f0 + s.f").append(fields - 1)
+            .append(" + x done");
+        select = (Fun) new Evaluator().evaluate(code.toString());
+        generic = new GenericStruct(values);
+    }
+
+    @Benchmark
+    public Object construct() {
+        return make.apply("v");
+    }
+
+    @Benchmark
+    public int getAll() {
+        Struct st = struct;
+        String[] n = names;
+        int found = 0;
+        for (int i = 0; i < n.length; ++i)
+            if (st.get(n[i]) != null)
+                ++found;
+        return found;
+    }
+
+    @Benchmark
+    public int getAllGeneric() {
+        Struct st = generic;
+        String[] n = names;
+        int found = 0;
+        for (int i = 0; i < n.length; ++i)
+            if (st.get(n[i]) != null)
+                ++found;
+        return found;
+    }
+
+    @Benchmark
+    public Object selectKnown() {
+        return select.apply(IntNum._1);
+    }
+}
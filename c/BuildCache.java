@@ -0,0 +1,296 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti language compiler persistent build cache.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang.compiler;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import yeti.renamed.asmx.ClassReader;
+
+/*
+ * On-disk cache of generated classes, shared between compiler runs.
+ *
+ * The key is a SHA-1 hash of the module source, its name and the relevant
+ * compiler options, together with the hashes of all loaded modules
+ * (ModuleType.hash, which is SHA-1 of the module class file). Since the
+ * dependency hashes are computed from the class files, any change in
+ * a module's source propagates to the keys of all its dependents,
+ * while unchanged modules are found again by content, regardless of
+ * file timestamps or checkout location.
+ *
+ * The Java classes used by a module are known only after analysing it,
+ * so they can't be part of the key. Instead the entry records hashes of
+ * the signatures of all classes referenced from the generated code (and
+ * of their supertypes), and the entry is used only when these are still
+ * the same on the current class path.
+ *
+ * Entry file format: magic, reference count and (class name, signature
+ * hash) for each referenced class, class count and (name, length, bytes)
+ * for each class, the module class first.
+ */
+final class BuildCache {
+    private static final int MAGIC = 0x59434332; // YCC2
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private final File dir;
+
+    BuildCache(String dir) {
+        this.dir = new File(dir);
+    }
+
+    static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    static String hex(byte[] hash) {
+        char[] s = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; ++i) {
+            s[i * 2] = HEX[(hash[i] >> 4) & 15];
+            s[i * 2 + 1] = HEX[hash[i] & 15];
+        }
+        return new String(s);
+    }
+
+    static String hash(byte[] data) {
+        return hex(digest().digest(data));
+    }
+
+    static void update(MessageDigest md, String s) {
+        try {
+            md.update(s.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException ex) {
+            throw new RuntimeException(ex);
+        }
+        md.update((byte) 0);
+    }
+
+    /*
+     * Computes cache key for given source and dependency hashes.
+     * Returns null, when some dependency has unknown hash
+     * (the module can't be cached then).
+     */
+    String key(Compiler compiler, YetiAnalyzer anal, char[] src,
+               String className, ModuleType[] deps) {
+        MessageDigest md = digest();
+        update(md, "yeti " + Integer.toHexString(MAGIC));
+        update(md, className);
+        update(md, String.valueOf(anal.sourceName));
+        update(md, String.valueOf(anal.sourceFile));
+        update(md, Integer.toString(anal.flags & (Compiler.CF_EXPECT_MODULE |
+                                                Compiler.CF_EXPECT_PROGRAM)));
+        update(md, Integer.toString(compiler.globalFlags));
+        update(md, Integer.toString(compiler.classWriterFlags));
+        update(md, String.valueOf(compiler.isGCJ));
+        for (int i = 0; i < deps.length; ++i) {
+            if (deps[i] == null)
+                continue;
+            if (deps[i].hash == null)
+                return null;
+            update(md, deps[i].name);
+            update(md, deps[i].hash);
+        }
+        byte[] buf = new byte[src.length * 2];
+        for (int i = 0, j = 0; i < src.length; ++i) {
+            buf[j++] = (byte) (src[i] >>> 8);
+            buf[j++] = (byte) src[i];
+        }
+        md.update(buf);
+        return hex(md.digest());
+    }
+
+    private File file(String key) {
+        return new File(new File(dir, key.substring(0, 2)),
+                        key.substring(2).concat(".ycache"));
+    }
+
+    // Adds class names from class name or type descriptor.
+    private static void addTypes(List to, String s) {
+        if (s.indexOf(';') < 0) {
+            if (s.charAt(0) != '[' && s.charAt(0) != '(')
+                to.add(s);
+            return;
+        }
+        for (int i = 0, n = s.length(); i < n; ++i)
+            if (s.charAt(i) == 'L') {
+                int e = s.indexOf(';', i);
+                to.add(s.substring(i + 1, e));
+                i = e;
+            }
+    }
+
+    // Hash of the current signature of the class ("" when not found).
+    private static String signature(ClassFinder classPath, String name,
+                                    List supers) throws IOException {
+        ClassSummary cs = classPath.signature(name);
+        if (cs == null)
+            return "";
+        if (supers != null) {
+            if (cs.superName() != null)
+                supers.add(cs.superName());
+            String[] interfaces = cs.interfaces();
+            for (int i = 0; interfaces != null && i < interfaces.length; ++i)
+                supers.add(interfaces[i]);
+        }
+        MessageDigest md = digest();
+        cs.digest(md);
+        return hex(md.digest());
+    }
+
+    /*
+     * Finds the classes referenced from the constant pools of generated
+     * classes and their supertypes, and returns map of their names to
+     * signature hashes. Returns null, when some of them is compiled from
+     * Java source (the module shouldn't be cached then).
+     */
+    static Map references(ClassFinder classPath, Map classes)
+            throws IOException {
+        List queue = new ArrayList();
+        Set own = new HashSet();
+        for (Iterator i = classes.entrySet().iterator(); i.hasNext();) {
+            Map.Entry e = (Map.Entry) i.next();
+            String name = (String) e.getKey();
+            own.add(name.substring(0, name.length() - 6));
+            ClassReader cr = new ClassReader((byte[]) e.getValue());
+            char[] buf = new char[cr.getMaxStringLength()];
+            for (int j = 1, cnt = cr.getItemCount(); j < cnt; ++j) {
+                int at = cr.getItem(j);
+                if (at == 0)
+                    continue;
+                switch (cr.readByte(at - 1)) {
+                case 7: // class
+                    addTypes(queue, cr.readUTF8(at, buf));
+                    break;
+                case 12: // name and type
+                    addTypes(queue, cr.readUTF8(at + 2, buf));
+                }
+            }
+        }
+        Map refs = new TreeMap();
+        while (!queue.isEmpty()) {
+            String name = (String) queue.remove(queue.size() - 1);
+            if (own.contains(name) || refs.containsKey(name))
+                continue;
+            if (classPath.parsed.containsKey(name))
+                return null;
+            refs.put(name, signature(classPath, name, queue));
+        }
+        return refs;
+    }
+
+    /*
+     * Returns the cached classes (name to bytes, module class first)
+     * or null, if there is no valid entry for the key, or some class
+     * referenced by the cached code has different signature now.
+     */
+    Map get(ClassFinder classPath, String key) {
+        File f = file(key);
+        if (!f.isFile())
+            return null;
+        try {
+            DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(f)));
+            try {
+                if (in.readInt() != MAGIC)
+                    return null;
+                for (int n = in.readInt(); --n >= 0;) {
+                    String name = in.readUTF();
+                    if (!in.readUTF().equals(
+                            signature(classPath, name, null)))
+                        return null;
+                }
+                Map classes = new LinkedHashMap();
+                for (int n = in.readInt(); --n >= 0;) {
+                    String name = in.readUTF();
+                    byte[] content = new byte[in.readInt()];
+                    in.readFully(content);
+                    classes.put(name, content);
+                }
+                return classes;
+            } finally {
+                in.close();
+            }
+        } catch (IOException ex) {
+            return null; // broken entry, just recompile
+        }
+    }
+
+    // Stores the classes, ignoring errors as the cache is only optimisation.
+    void put(ClassFinder classPath, String key, Map classes) {
+        File f = file(key);
+        File tmp = null;
+        try {
+            Map refs = references(classPath, classes);
+            if (refs == null)
+                return;
+            f.getParentFile().mkdirs();
+            tmp = File.createTempFile("tmp", ".ycache", f.getParentFile());
+            DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp)));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(refs.size());
+                for (Iterator i = refs.entrySet().iterator(); i.hasNext();) {
+                    Map.Entry e = (Map.Entry) i.next();
+                    out.writeUTF((String) e.getKey());
+                    out.writeUTF((String) e.getValue());
+                }
+                out.writeInt(classes.size());
+                for (Iterator i = classes.entrySet().iterator(); i.hasNext();) {
+                    Map.Entry e = (Map.Entry) i.next();
+                    byte[] content = (byte[]) e.getValue();
+                    out.writeUTF((String) e.getKey());
+                    out.writeInt(content.length);
+                    out.write(content);
+                }
+            } finally {
+                out.close();
+            }
+            // rename is atomic, so concurrent builds never see partial entry
+            if (tmp.renameTo(f) || f.isFile())
+                tmp = null;
+        } catch (IOException ex) {
+        } finally {
+            if (tmp != null)
+                tmp.delete();
+        }
+    }
+}
@@ -35,17 +35,123 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
+import java.security.MessageDigest;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.Enumeration;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
-import yeti.renamed.asmx.ClassReader;
+import yeti.renamed.asmx.*;
+
+/*
+ * Class members needed by JavaTypeReader, recorded once from the class
+ * file and replayed for each compiler reading the class, so the class
+ * is read and parsed by ASM only once per process.
+ */
+final class ClassSummary extends ClassVisitor {
+    private final List fields = new ArrayList();
+    private final List methods = new ArrayList();
+    private int version;
+    private int access;
+    private String name;
+    private String signature;
+    private String superName;
+    private String[] interfaces;
+
+    private ClassSummary() {
+        super(Opcodes.ASM8);
+    }
+
+    static ClassSummary read(InputStream in) throws IOException {
+        ClassSummary cs = new ClassSummary();
+        try {
+            new ClassReader(in).accept(cs,
+                ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+        } finally {
+            in.close();
+        }
+        return cs;
+    }
+
+    public void visit(int version, int access, String name, String signature,
+                      String superName, String[] interfaces) {
+        this.version = version;
+        this.access = access;
+        this.name = name;
+        this.signature = signature;
+        this.superName = superName;
+        this.interfaces = interfaces;
+    }
+
+    public FieldVisitor visitField(int access, String name, String desc,
+                                   String signature, Object value) {
+        if ((access & Opcodes.ACC_PRIVATE) == 0)
+            fields.add(new Object[] { new Integer(access), name, desc,
+                                      signature, value });
+        return null;
+    }
+
+    public MethodVisitor visitMethod(int access, String name, String desc,
+                                     String signature, String[] exceptions) {
+        if ((access & Opcodes.ACC_PRIVATE) == 0)
+            methods.add(new Object[] { new Integer(access), name, desc,
+                                       signature, exceptions });
+        return null;
+    }
+
+    String superName() {
+        return superName;
+    }
+
+    String[] interfaces() {
+        return interfaces;
+    }
+
+    // Adds the class signature (the recorded members) to the digest.
+    void digest(MessageDigest md) {
+        BuildCache.update(md, access + " " + name + " " + signature + " " +
+                              superName);
+        for (int i = 0; interfaces != null && i < interfaces.length; ++i)
+            BuildCache.update(md, interfaces[i]);
+        for (int i = 0, cnt = fields.size(); i < cnt; ++i) {
+            Object[] f = (Object[]) fields.get(i);
+            BuildCache.update(md, "F " + f[0] + " " + f[1] + " " + f[2] +
+                                  " " + f[3] + " " + f[4]);
+        }
+        for (int i = 0, cnt = methods.size(); i < cnt; ++i) {
+            Object[] m = (Object[]) methods.get(i);
+            BuildCache.update(md, "M " + m[0] + " " + m[1] + " " + m[2] +
+                                  " " + m[3]);
+        }
+    }
+
+    void replay(ClassVisitor v) {
+        v.visit(version, access, name, signature, superName, interfaces);
+        for (int i = 0, cnt = fields.size(); i < cnt; ++i) {
+            Object[] f = (Object[]) fields.get(i);
+            v.visitField(((Integer) f[0]).intValue(), (String) f[1],
+                         (String) f[2], (String) f[3], f[4]);
+        }
+        for (int i = 0, cnt = methods.size(); i < cnt; ++i) {
+            Object[] m = (Object[]) methods.get(i);
+            v.visitMethod(((Integer) m[0]).intValue(), (String) m[1],
+                (String) m[2], (String) m[3], (String[]) m[4]);
+        }
+        v.visitEnd();
+    }
+}
 
 abstract class ClassPathItem {
     abstract InputStream getStream(String name, long[] time) throws IOException;
     abstract boolean exists(String name);
+
+    ClassSummary summary(String name) throws IOException {
+        InputStream in = getStream(name, null);
+        return in == null ? null : ClassSummary.read(in);
+    }
 }
 
 class ClassDir extends ClassPathItem {
@@ -68,27 +174,53 @@ class ClassDir extends ClassPathItem {
     }
 }
 
+/*
+ * Jars are shared by all compilers in the process. The jar is opened
+ * on first lookup, and replaced with new instance when the file
+ * is modified. Lookups use the JarFile own entry index.
+ */
 class ClassJar extends ClassPathItem {
-    JarFile jar;
-    Map entries = Collections.EMPTY_MAP;
+    private static final Map OPENED = new ConcurrentHashMap();
 
-    ClassJar(String path) {
-        try {
-            jar = new JarFile(path);
-            Enumeration e = jar.entries();
-            entries = new HashMap();
-            while (e.hasMoreElements()) {
-                ZipEntry entry = (ZipEntry) e.nextElement();
-                String name = entry.getName();
-                if (name.endsWith(".class"))
-                    entries.put(name, entry);
-            }
-        } catch (IOException ex) {
+    private final String path;
+    private final long time;
+    private final long size;
+    private final Map summaries = new ConcurrentHashMap();
+    private JarFile jar;
+    private boolean failed;
+
+    private ClassJar(String path, long time, long size) {
+        this.path = path;
+        this.time = time;
+        this.size = size;
+    }
+
+    static ClassJar open(String path) {
+        File f = new File(path);
+        long time = f.lastModified(), size = f.length();
+        ClassJar cj = (ClassJar) OPENED.get(path);
+        if (cj == null || cj.time != time || cj.size != size) {
+            // the old instance may be still in use by other compiler,
+            // so it's left for garbage collector to close
+            cj = new ClassJar(path, time, size);
+            OPENED.put(path, cj);
         }
+        return cj;
+    }
+
+    private synchronized JarFile jar() {
+        if (jar == null && !failed)
+            try {
+                jar = new JarFile(path);
+            } catch (IOException ex) {
+                failed = true;
+            }
+        return jar;
     }
 
     InputStream getStream(String name, long[] time) throws IOException {
-        ZipEntry entry = (ZipEntry) entries.get(name);
+        JarFile jar = jar();
+        ZipEntry entry = jar == null ? null : jar.getEntry(name);
         if (entry == null)
             return null;
         InputStream r = jar.getInputStream(entry);
@@ -98,16 +230,33 @@ class ClassJar extends ClassPathItem {
     }
 
     boolean exists(String name) {
-        return entries.containsKey(name);
+        JarFile jar = jar();
+        return jar != null && jar.getEntry(name) != null;
+    }
+
+    ClassSummary summary(String name) throws IOException {
+        ClassSummary cs = (ClassSummary) summaries.get(name);
+        if (cs == null && (cs = super.summary(name)) != null)
+            summaries.put(name, cs);
+        return cs;
     }
 }
 
 class ClassFinder {
+    // Class existence and summaries of classes from class loaders,
+    // except MemLoader which contents can change. Missing classes
+    // aren't remembered, as loaders like URLClassLoader can find
+    // classes appearing later in their directories.
+    private static final Map LOADERS = new WeakHashMap();
+
     private final ClassPathItem[] classPath;
     private final ClassPathItem destDir;
-    private Map defined = new HashMap();
+    private final Map defined;
     final Map parsed = new HashMap();
-    final Map existsCache = new HashMap();
+    // Known classes. Missing ones are remembered only until some
+    // module is compiled, as the generated classes may appear then.
+    private final Map existsCache = new HashMap();
+    private final Map missingCache = new HashMap();
     final String pathStr;
 
     ClassFinder(String cp) {
@@ -119,13 +268,49 @@ class ClassFinder {
         StringBuilder buf = new StringBuilder();
         for (int i = 0; i < cp.length; ++i) {
             classPath[i] = cp[i].endsWith(".jar")
-                ? (ClassPathItem) new ClassJar(cp[i]) : new ClassDir(cp[i]);
+                ? (ClassPathItem) ClassJar.open(cp[i]) : new ClassDir(cp[i]);
             if (i != 0)
                 buf.append(File.pathSeparator);
             buf.append(cp[i]);
         }
         pathStr = buf.toString();
         destDir = depDestDir == null ? null : new ClassDir(depDestDir);
+        defined = java.util.Collections.synchronizedMap(new HashMap());
+    }
+
+    // Finder for another compiler thread, sharing the defined classes.
+    ClassFinder(ClassFinder cf) {
+        classPath = cf.classPath;
+        destDir = cf.destDir;
+        defined = cf.defined;
+        pathStr = cf.pathStr;
+    }
+
+    private static Map loaderIndex(ClassLoader cl) {
+        if (cl == null || cl instanceof MemLoader)
+            return null;
+        synchronized (LOADERS) {
+            Map index = (Map) LOADERS.get(cl);
+            if (index == null)
+                LOADERS.put(cl, index = new ConcurrentHashMap());
+            return index;
+        }
+    }
+
+    // Reads class summary from class loader resources, caching it.
+    private static ClassSummary loaderSummary(ClassLoader cl, String name)
+            throws IOException {
+        Map index = loaderIndex(cl);
+        Object cs = index == null ? null : index.get(name);
+        if (cs instanceof ClassSummary)
+            return (ClassSummary) cs;
+        InputStream in = cl == null ? null : cl.getResourceAsStream(name);
+        if (in == null)
+            return null;
+        cs = ClassSummary.read(in);
+        if (index != null)
+            index.put(name, cs);
+        return (ClassSummary) cs;
     }
 
     public InputStream findClass(String name, long[] time) {
@@ -152,12 +337,16 @@ class ClassFinder {
         defined.put(name, content);
     }
 
+    // Called after compiling a module, as it may have created classes.
+    void forgetMissing() {
+        missingCache.clear();
+    }
+
     boolean exists(String name) {
-        if (parsed.containsKey(name))
+        if (parsed.containsKey(name) || existsCache.containsKey(name))
             return true;
-        Boolean known = (Boolean) existsCache.get(name);
-        if (known != null)
-            return known.booleanValue();
+        if (missingCache.containsKey(name))
+            return false;
         String fn = name.concat(".class");
         boolean found = false;
         for (int i = 0; i < classPath.length; ++i)
@@ -165,22 +354,48 @@ class ClassFinder {
                 found = true;
                 break;
             }
-        ClassLoader clc = null;
-        InputStream in;
         if (!found) {
-            clc = Thread.currentThread().getContextClassLoader();
+            ClassLoader clc = Thread.currentThread().getContextClassLoader();
             if (clc == null && name.startsWith("java"))
                 clc = ClassLoader.getSystemClassLoader();
+            Map index = loaderIndex(clc);
+            if (index != null && index.containsKey(name)) {
+                found = true;
+            } else if (clc != null) {
+                found = clc.getResource(fn) != null;
+                if (found && index != null)
+                    index.put(name, Boolean.TRUE);
+            }
         }
-        if (clc != null && (in = clc.getResourceAsStream(fn)) != null) {
-            found = true;
+        (found ? existsCache : missingCache).put(name, Boolean.TRUE);
+        return found;
+    }
+
+    private ClassSummary summary(String classFile) throws IOException {
+        ClassSummary cs;
+        for (int i = 0; i < classPath.length; ++i) {
             try {
-                in.close();
-            } catch (Exception ex) {
+                if ((cs = classPath[i].summary(classFile)) != null)
+                    return cs;
+            } catch (IOException ex) {
             }
         }
-        existsCache.put(name, Boolean.valueOf(found));
-        return found;
+        if ((cs = loaderSummary(Thread.currentThread()
+                        .getContextClassLoader(), classFile)) != null ||
+            (cs = loaderSummary(getClass().getClassLoader(),
+                                classFile)) != null)
+            return cs;
+        return destDir == null ? null : destDir.summary(classFile);
+    }
+
+    // Summary of the class file (preferring the classes defined by
+    // this build), or null if there is no such class file.
+    ClassSummary signature(String className) throws IOException {
+        String fn = className.concat(".class");
+        Object x = defined.get(fn);
+        return x != null
+            ? ClassSummary.read(new ByteArrayInputStream((byte[]) x))
+            : summary(fn);
     }
 
     JavaTypeReader readClass(String className) {
@@ -191,27 +406,18 @@ class ClassFinder {
             JavaSource.loadClass(this, t, (JavaNode) classNode);
             return t;
         }
-        String classFile = className.concat(".class");
-        InputStream in = findClass(classFile, null);
-        if (in == null)
-            try {
-                if (destDir == null)
-                    return null;
-                in = destDir.getStream(classFile, null);
-            } catch (IOException ex) {
-                return null;
-            }
-        if (in == null)
-            return null;
+        ClassSummary cs;
         try {
-            new ClassReader(in).accept(t, null,
-                    ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+            cs = summary(className.concat(".class"));
         } catch (IOException ex) {
             return null;
         } catch (Exception ex) {
             throw new RuntimeException("Internal error reading class " +
                         className + ": " + ex.getMessage(), ex);
         }
+        if (cs == null)
+            return null;
+        cs.replay(t);
         return t;
     }
 }
@@ -0,0 +1,258 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti language compiler server.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang.compiler;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import yeti.lang.Fun;
+import yeti.lang.MList;
+
+/*
+ * Long-running compiler process, that keeps the JIT-compiled compiler,
+ * opened class path jars and module types read from the class path
+ * between compilations. Requests are served one at a time on a loopback
+ * TCP socket.
+ *
+ * Any local user can connect to the loopback port, so the server
+ * generates random token on start, and writes it to a file readable
+ * only by its owner (~/.yeti/server-<port>.token). Requests without
+ * that token are denied, and the client then compiles by itself.
+ *
+ * Protocol: client sends magic, token, argument count and the arguments,
+ * server answers with frames (OUT/ERR, length, bytes) carrying
+ * the standard output and error of the compilation, terminated by
+ * EXIT frame with the exit code (or just DENIED on wrong token).
+ */
+final class CompileServer {
+    private static final int MAGIC = 0x59435332; // YCS2
+    private static final int EXIT = 0;
+    private static final int OUT = 1;
+    private static final int ERR = 2;
+    private static final int DENIED = 3;
+
+    // Sends everything written to it as frames of given type.
+    private static final class FrameStream extends OutputStream {
+        private final DataOutputStream out;
+        private final int type;
+
+        FrameStream(DataOutputStream out, int type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        public void write(byte[] b, int off, int len) throws IOException {
+            synchronized (out) {
+                out.writeByte(type);
+                out.writeInt(len);
+                out.write(b, off, len);
+            }
+        }
+
+        public void flush() throws IOException {
+            synchronized (out) {
+                out.flush();
+            }
+        }
+    }
+
+    private static File tokenFile(int port) {
+        return new File(new File(System.getProperty("user.home"), ".yeti"),
+                        "server-" + port + ".token");
+    }
+
+    // Creates new token file, accessible only by the current user.
+    private static String createToken(int port) throws IOException {
+        byte[] random = new byte[16];
+        new SecureRandom().nextBytes(random);
+        String token = BuildCache.hex(random);
+        File f = tokenFile(port);
+        File dir = f.getParentFile();
+        dir.mkdirs();
+        // restrict access before writing the token, and rename the
+        // written file, so clients never see partial token
+        File tmp = File.createTempFile("server", ".tmp", dir);
+        try {
+            boolean restricted =
+                dir.setReadable(false, false) && dir.setReadable(true, true)
+                && dir.setWritable(false, false) &&
+                dir.setWritable(true, true) &&
+                dir.setExecutable(false, false) &&
+                dir.setExecutable(true, true) &&
+                tmp.setReadable(false, false) && tmp.setReadable(true, true)
+                && tmp.setWritable(false, false) &&
+                tmp.setWritable(true, true);
+            if (!restricted && File.separatorChar == '/')
+                throw new IOException("Cannot restrict access to " + tmp);
+            Writer w = new OutputStreamWriter(new FileOutputStream(tmp),
+                                              "UTF-8");
+            try {
+                w.write(token);
+            } finally {
+                w.close();
+            }
+            f.delete();
+            if (!tmp.renameTo(f))
+                throw new IOException("Cannot create " + f);
+            tmp = null;
+        } finally {
+            if (tmp != null)
+                tmp.delete();
+        }
+        f.deleteOnExit();
+        return token;
+    }
+
+    // Reads the server token, or returns null if it's not readable.
+    private static String readToken(int port) {
+        try {
+            BufferedReader r = new BufferedReader(new InputStreamReader(
+                new FileInputStream(tokenFile(port)), "UTF-8"));
+            try {
+                return r.readLine();
+            } finally {
+                r.close();
+            }
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /*
+     * Serves compilation requests forever. The compile function is
+     * given the argument list and should return the exit code.
+     */
+    static void serve(int port, Fun compile) throws IOException {
+        Compiler.warmTypes = new HashMap();
+        ServerSocket server =
+            new ServerSocket(port, 50, InetAddress.getByName(null));
+        byte[] token = createToken(server.getLocalPort()).getBytes("UTF-8");
+        for (;;) {
+            Socket socket = server.accept();
+            try {
+                handle(socket, token, compile);
+            } catch (IOException ex) { // client went away
+            } finally {
+                socket.close();
+            }
+        }
+    }
+
+    private static void handle(Socket socket, byte[] token, Fun compile)
+            throws IOException {
+        DataInputStream in = new DataInputStream(
+            new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(socket.getOutputStream()));
+        if (in.readInt() != MAGIC)
+            return;
+        if (!MessageDigest.isEqual(token, in.readUTF().getBytes("UTF-8"))) {
+            out.writeByte(DENIED);
+            out.flush();
+            return;
+        }
+        String[] args = new String[in.readInt()];
+        for (int i = 0; i < args.length; ++i)
+            args[i] = in.readUTF();
+        PrintStream oldOut = System.out, oldErr = System.err;
+        PrintStream reqOut = new PrintStream(new FrameStream(out, OUT), true);
+        PrintStream reqErr = new PrintStream(new FrameStream(out, ERR), true);
+        int code;
+        System.setOut(reqOut);
+        System.setErr(reqErr);
+        try {
+            code = ((Number) compile.apply(new MList(args))).intValue();
+        } catch (Throwable ex) {
+            ex.printStackTrace();
+            code = 2;
+        } finally {
+            reqOut.flush();
+            reqErr.flush();
+            System.setOut(oldOut);
+            System.setErr(oldErr);
+        }
+        out.writeByte(EXIT);
+        out.writeInt(code);
+        out.flush();
+    }
+
+    /*
+     * Sends the arguments to server on the given port, copies its output
+     * and returns the exit code, or -1 when no server is listening there
+     * (or it is not accessible for the current user).
+     */
+    static int client(int port, String[] args) throws IOException {
+        String token = readToken(port);
+        if (token == null)
+            return -1;
+        Socket socket;
+        try {
+            socket = new Socket(InetAddress.getByName(null), port);
+        } catch (java.net.ConnectException ex) {
+            return -1;
+        }
+        try {
+            DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(MAGIC);
+            out.writeUTF(token);
+            out.writeInt(args.length);
+            for (int i = 0; i < args.length; ++i)
+                out.writeUTF(args[i]);
+            out.flush();
+            DataInputStream in = new DataInputStream(
+                new BufferedInputStream(socket.getInputStream()));
+            byte[] buf = new byte[8192];
+            for (int type; (type = in.readByte()) != EXIT;) {
+                if (type == DENIED)
+                    return -1;
+                int len = in.readInt();
+                if (len > buf.length)
+                    buf = new byte[len];
+                in.readFully(buf, 0, len);
+                PrintStream to = type == ERR ? System.err : System.out;
+                to.write(buf, 0, len);
+                to.flush();
+            }
+            return in.readInt();
+        } finally {
+            socket.close();
+        }
+    }
+}
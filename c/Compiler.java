@@ -61,14 +61,19 @@ final class Compiler implements Opcodes {
         new String[] { "yeti/lang/std", "yeti/lang/io" };
 
     static final ThreadLocal currentCompiler = new ThreadLocal();
+    // Module types read from class path, kept between compilations
+    // by CompileServer (validated by class modification time).
+    static Map warmTypes;
     private static ClassLoader JAVAC;
 
     Fun writer;
     String depDestDir; // used to read already compiled classes
+    BuildCache cache;
     private Map compiled = new HashMap();
     private List warnings = new ArrayList();
     private String currentSrc;
     private Map definedClasses = new HashMap();
+    private List lastWritten = new ArrayList(); // for BuildCache
     final List postGen = new ArrayList();
     boolean isGCJ;
 
@@ -83,6 +88,7 @@ final class Compiler implements Opcodes {
     String[] preload = PRELOAD;
     int classWriterFlags = ClassWriter.COMPUTE_FRAMES;
     int globalFlags;
+    int threads = 1; // used by compileAll
 
     Compiler() {
         // GCJ bytecode verifier is overly strict about INVOKEINTERFACE
@@ -96,6 +102,33 @@ final class Compiler implements Opcodes {
         warnings.add(ex);
     }
 
+    List takeWarnings() {
+        List result = warnings;
+        warnings = new ArrayList();
+        return result;
+    }
+
+    void addWarnings(List list) {
+        warnings.addAll(list);
+    }
+
+    // Creates compiler with same options for compiling on another thread.
+    Compiler fork(Fun writer) {
+        Compiler c = new Compiler();
+        c.writer = writer;
+        c.depDestDir = depDestDir;
+        c.cache = cache;
+        c.isGCJ = isGCJ;
+        c.sourceCharset = sourceCharset;
+        c.sourcePath = sourcePath;
+        c.customReader = customReader;
+        c.classPath = new ClassFinder(classPath);
+        c.preload = preload;
+        c.classWriterFlags = classWriterFlags;
+        c.globalFlags = globalFlags;
+        return c;
+    }
+
     String createClassName(Ctx ctx, String outerClass, String nameBase) {
         boolean anon = nameBase == "" && ctx != null;
         nameBase = outerClass + '$' + nameBase;
@@ -119,7 +152,9 @@ final class Compiler implements Opcodes {
     private void generateModuleAccessors(Map fields, Ctx ctx, Map direct) {
         if (ctx.compilation.isGCJ)
             ctx.typeInsn(CHECKCAST, "yeti/lang/Struct");
-        for (Iterator i = fields.entrySet().iterator(); i.hasNext();) {
+        // sorted for reproducible output, fields is IdentityHashMap
+        for (Iterator i = new TreeMap(fields).entrySet().iterator();
+             i.hasNext();) {
             Map.Entry entry = (Map.Entry) i.next();
             String name = (String) entry.getKey();
             String jname = Code.mangle(name);
@@ -195,11 +230,15 @@ final class Compiler implements Opcodes {
             } else {
                 sources[yetiCount++] = sources[i];
             }
-        String mainClass = null;
-        for (i = 0; i < yetiCount; ++i) {
-            String className = compile(sources[i], null, flags).name;
-            if (!types.containsKey(className))
-                mainClass = className;
+        String[] mainClass = { null };
+        if (threads <= 1 || yetiCount <= 1 || java != null ||
+                !new ParallelCompiler(this, flags, threads)
+                        .build(sources, yetiCount, mainClass)) {
+            for (i = 0; i < yetiCount; ++i) {
+                String className = compile(sources[i], null, flags).name;
+                if (!types.containsKey(className))
+                    mainClass[0] = className;
+            }
         }
         if (java != null) {
             javaArg = (String[]) java.toArray(new String[javaArg.length]);
@@ -235,7 +274,7 @@ final class Compiler implements Opcodes {
                 throw new CompileException(null,
                             "Error while compiling Java sources");
         }
-        return yetiCount != 0 ? mainClass : "";
+        return yetiCount != 0 ? mainClass[0] : "";
     }
 
     void setSourcePath(String[] path) throws IOException {
@@ -251,7 +290,7 @@ final class Compiler implements Opcodes {
         sourcePath = sp;
     }
 
-    private char[] readSourceFile(String parent, String fn,
+    char[] readSourceFile(String parent, String fn,
                                   YetiAnalyzer analyzer) throws IOException {
         if (customReader != null) {
             Struct3 arg = new Struct3(new String[] { "name", "parent" }, null);
@@ -351,11 +390,37 @@ final class Compiler implements Opcodes {
         InputStream in = classPath.findClass(cname + ".class", lastModified);
         if (in == null)
             return null;
-        ModuleType t = YetiTypeVisitor.readType(this, in);
+        // Time 0 means in-memory class from current compilation,
+        // -1 a resource from the compiler's own class loader.
+        Map warm = lastModified[0] != 0 ? warmTypes : null;
+        String key = classPath.pathStr + '\0' + cname;
+        ModuleType t = null;
+        if (warm != null) {
+            synchronized (warm) {
+                Object[] entry = (Object[]) warm.get(key);
+                if (entry != null &&
+                        ((Long) entry[0]).longValue() == lastModified[0])
+                    t = (ModuleType) entry[1];
+            }
+            if (t != null && (cache == null || t.hash != null)) {
+                in.close();
+                types.put(cname, t);
+                return t;
+            }
+        }
+        int opaqueCount = opaqueTypes.size();
+        t = YetiTypeVisitor.readType(this, in);
         if (t != null) {
             t.name = cname;
             t.lastModified = lastModified[0];
             types.put(cname, t);
+            // opaque type ids are numbered per compiler, so types
+            // having them can't be used by other compilers
+            if (warm != null && opaqueTypes.size() == opaqueCount)
+                synchronized (warm) {
+                    warm.put(key, new Object[] {
+                        new Long(lastModified[0]), t });
+                }
         }
         return t;
     }
@@ -474,13 +539,18 @@ final class Compiler implements Opcodes {
                 codeTree = anal.toCode(code);
                 if (codeTree == null) {
                     ModuleType t = anal.resolvedType;
-                    if (t == null) { // module, type from class
+                    long time = anal.targetTime;
+                    if (anal.cached != null) { // classes from build cache
+                        t = fromCache(anal, t);
+                        time = Math.max(anal.sourceTime,
+                                        anal.depsModifiedTime);
+                    } else if (t == null) { // module, type from class
                         t = YetiTypeVisitor.readType(this,
                             new FileInputStream(anal.targetFile));
                         types.put(t.name, t);
                         t.topDoc = anal.topDoc;
                     }
-                    t.lastModified = anal.targetTime;
+                    t.lastModified = time;
                     t.hasSource = true;
                     compiled.put(anal.canonicalFile, t);
                     //System.err.println(t.name + " already compiled.");
@@ -502,8 +572,10 @@ final class Compiler implements Opcodes {
                 types.put(name, codeTree.moduleType);
             if (writer != null)
                 generateCode(anal, codeTree);
+            if (writer != null && cache != null)
+                cacheModule(anal, codeTree);
             compiled.put(anal.canonicalFile, codeTree.moduleType);
-            classPath.existsCache.clear();
+            classPath.forgetMissing();
             currentSrc = oldCurrentSrc;
             return codeTree.moduleType;
         } catch (CompileException ex) {
@@ -513,6 +585,43 @@ final class Compiler implements Opcodes {
         }
     }
 
+    private ModuleType fromCache(YetiAnalyzer anal, ModuleType t)
+            throws Exception {
+        byte[] main = null;
+        for (Iterator i = anal.cached.entrySet().iterator(); i.hasNext();) {
+            Map.Entry e = (Map.Entry) i.next();
+            String name = (String) e.getKey();
+            byte[] content = (byte[]) e.getValue();
+            if (main == null)
+                main = content;
+            definedClasses.put(name.substring(0, name.length() - 6)
+                                   .toLowerCase(), "");
+            writer.apply(name, content);
+            classPath.define(name, content);
+        }
+        if (t == null) { // module, type from the module class
+            t = YetiTypeVisitor.readType(this, new ByteArrayInputStream(main));
+            types.put(t.name, t);
+            t.topDoc = anal.topDoc;
+        }
+        return t;
+    }
+
+    private void cacheModule(YetiAnalyzer anal, RootClosure codeTree) {
+        Map classes = new LinkedHashMap();
+        String main = codeTree.moduleType.name + ".class";
+        classes.put(main, null); // module class goes first
+        for (int i = 0, cnt = lastWritten.size(); i < cnt; i += 2)
+            classes.put(lastWritten.get(i), lastWritten.get(i + 1));
+        lastWritten.clear();
+        byte[] content = (byte[]) classes.get(main);
+        if (content == null)
+            return;
+        codeTree.moduleType.hash = BuildCache.hash(content);
+        if (anal.cacheKey != null)
+            cache.put(classPath, anal.cacheKey, classes);
+    }
+
     private void generateCode(YetiAnalyzer anal, RootClosure codeTree)
             throws Exception {
         String name = codeTree.moduleType.name;
@@ -623,12 +732,17 @@ final class Compiler implements Opcodes {
         for (i = 0; i < cnt; ++i)
             ((Runnable) postGen.get(i)).run();
         postGen.clear();
+        lastWritten.clear();
         cnt = unstoredClasses.size();
         for (i = 0; i < cnt; ++i) {
             Ctx c = (Ctx) unstoredClasses.get(i);
             definedClasses.put(c.className.toLowerCase(), "");
             String name = c.className + ".class";
             byte[] content = c.cw.toByteArray();
+            if (cache != null) {
+                lastWritten.add(name);
+                lastWritten.add(content);
+            }
             writer.apply(name, content);
             classPath.define(name, content);
         }
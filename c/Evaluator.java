@@ -27,6 +27,8 @@
 package yeti.lang.compiler;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.logging.Logger;
 import yeti.lang.Struct;
 import yeti.lang.Core;
@@ -43,10 +45,27 @@ import yeti.lang.Tag;
  * Fun add2 = (Fun) context.evaluate("(+) 2");
  * System.out.println(add.apply(new IntNum(3)));
  * </pre>
+ *
+ * <p>When the same expressions are evaluated repeatedly, a cache of
+ * compiled code can be enabled using {@link #setCacheSize(int)}.
+ * Cached expressions are executed again without recompiling them.
+ *
+ * <p>The evaluator can be shared between threads. Compilation is
+ * serialized, but the compiled code is executed concurrently (binding
+ * evaluations are serialized with other evaluations in the same scope).
+ * Threads that need their own top-level bindings can use separate
+ * sessions created by {@link #newSession()}, which share the preloaded
+ * modules and compiled code cache with the evaluator.
  */
 public class Evaluator {
     private final static Logger LOG = Logger.getLogger(Evaluator.class.getName());
     private final Fun ctx;
+    private int cacheSize;
+    private Map cache;
+    private long hits;
+    private long misses;
+    private int sessionCount;
+    private final Session defaultSession = new Session();
 
     /**
      * Constructs new evaluator context using default preloaded modules.
@@ -118,7 +137,7 @@ public class Evaluator {
      * @throws CompileException on compilation errors
      */
     public Object evaluate(String expression) throws Exception {
-        return evaluate(expression, null, false, null);
+        return defaultSession.evaluate(expression, null, false, null);
     }
 
     /**
@@ -131,7 +150,82 @@ public class Evaluator {
      * @throws CompileException on compilation errors
      */
     public Object bindingEvaluate(String expression) throws Exception {
-        return evaluate(expression, null, true, null);
+        return defaultSession.evaluate(expression, null, true, null);
+    }
+
+    /**
+     * Creates a new session with its own top-level bindings.
+     * The bindings in the evaluators own scope aren't visible in the
+     * session, and the session bindings are visible only in the session.
+     *
+     * @return new session
+     */
+    public Session newSession() {
+        return new Session();
+    }
+
+    /**
+     * Sets the maximum number of compiled expressions kept in the cache.
+     * The least recently used expressions are dropped first, when the
+     * cache gets full. Caching is disabled by default (size 0).
+     *
+     * <p>The cached code is keyed by session, expression text and source
+     * name. Binding evaluations are not cached, as each of them must create
+     * new top-level bindings. Cached expressions of a session are not used
+     * after new top-level bindings are created in the session scope, as
+     * these could shadow names used by the cached expressions.
+     *
+     * @param size maximum number of cached expressions (0 disables cache)
+     */
+    public synchronized void setCacheSize(final int size) {
+        cacheSize = size;
+        if (size <= 0) {
+            cache = null;
+        } else if (cache == null) {
+            cache = new LinkedHashMap(16, 0.75f, true) {
+                protected boolean removeEldestEntry(Map.Entry eldest) {
+                    return size() > cacheSize;
+                }
+            };
+        } else {
+            while (cache.size() > size) {
+                cache.remove(cache.keySet().iterator().next());
+            }
+        }
+    }
+
+    /**
+     * Removes all compiled expressions from the cache.
+     * The hit and miss counters are not reset.
+     */
+    public synchronized void clearCache() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Forgets top-level bindings that are shadowed by newer bindings
+     * with the same name, so their values can be garbage collected.
+     * Useful for long-running evaluators that rebind same names.
+     */
+    public void trimBindings() {
+        defaultSession.trimBindings();
+    }
+
+    /**
+     * Returns the number of evaluations that reused cached code.
+     */
+    public synchronized long getCacheHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of non-binding evaluations that had to compile
+     * the expression while the cache was enabled.
+     */
+    public synchronized long getCacheMisses() {
+        return misses;
     }
 
     /**
@@ -148,15 +242,53 @@ public class Evaluator {
      */
     public Object evaluate(String expression, String sourceName,
                            boolean bind, String[] arguments) throws Exception {
-        LList opt = bind ? new LList(new Tag(null, "Bind"), null) : null;
+        return defaultSession.evaluate(expression, sourceName, bind, arguments);
+    }
+
+    private Object evaluate(Session session, String expression,
+                            String sourceName, boolean bind,
+                            String[] arguments) throws Exception {
+        LList opt = new LList(new Tag(session.env, "Env"),
+                        bind ? new LList(new Tag(null, "Bind"), null) : null);
         if (sourceName != null) {
             opt = new LList(new Tag(sourceName, "Source"), opt);
         }
         if (arguments != null) {
             opt = new LList(new Tag(new MList(arguments), "Exec"), opt);
         }
+        Cached cached = null;
+        String key = null;
+        synchronized (this) {
+            if (cache != null && !bind) {
+                key = session.id + sourceName + '\0' + expression;
+                cached = (Cached) cache.get(key);
+                if (cached != null && cached.env.bindings.size()
+                                        != cached.bindings) {
+                    cache.remove(key);
+                    cached = null;
+                }
+                if (cached != null) {
+                    ++hits;
+                } else {
+                    ++misses;
+                    cached = new Cached();
+                    opt = new LList(new Tag(cached, "Compiled"), opt);
+                }
+            }
+        }
+        if (cached != null && cached.code != null) {
+            return cached.run(arguments);
+        }
         Struct st = (Struct) ctx.apply(opt, expression);
         Tag result = (Tag) st.get("result");
+        if (cached != null && cached.code != null) {
+            synchronized (this) {
+                if (cache != null) {
+                    cached.bindings = cached.env.bindings.size();
+                    cache.put(key, cached);
+                }
+            }
+        }
         if (result.name != "Result") {
             throw (Exception) result.value;
         }
@@ -172,8 +304,9 @@ public class Evaluator {
      * @throws CompileException on compilation errors
      */
     public String check(String expression, String sourceName) {
-        LList opt = new LList(new Tag(null, "NoExec"), sourceName == null
-            ? null : new LList(new Tag(sourceName, "Source"), null));
+        LList opt = new LList(new Tag(defaultSession.env, "Env"),
+            new LList(new Tag(null, "NoExec"), sourceName == null
+                ? null : new LList(new Tag(sourceName, "Source"), null)));
         Struct st = (Struct) ctx.apply(opt, expression);
         Tag result = (Tag) st.get("result");
         if (result.name != "Result") {
@@ -185,4 +318,107 @@ public class Evaluator {
         return ((Fun) showtype.showType().apply(null, ""))
                 .apply(st.get("type")).toString();
     }
+
+    /**
+     * Evaluation scope with its own top-level bindings.
+     * Sessions are created using {@link Evaluator#newSession()}.
+     */
+    public final class Session {
+        final YetiEval env = new YetiEval();
+        final int id;
+
+        Session() {
+            synchronized (Evaluator.this) {
+                id = sessionCount++;
+            }
+        }
+
+        /**
+         * Evaluates given Yeti expression in this session.
+         *
+         * @param expression to evaluate
+         * @return evaluation result as Java object (may be null)
+         * @throws Exception from evaluated code
+         * @throws CompileException on compilation errors
+         */
+        public Object evaluate(String expression) throws Exception {
+            return evaluate(expression, null, false, null);
+        }
+
+        /**
+         * Evaluates given Yeti expression in this session.
+         * Retains top-level bindings from evaluated code in the session.
+         *
+         * @param expression to evaluate
+         * @return evaluation result as Java object (may be null)
+         * @throws Exception from evaluated code
+         * @throws CompileException on compilation errors
+         */
+        public Object bindingEvaluate(String expression) throws Exception {
+            return evaluate(expression, null, true, null);
+        }
+
+        /**
+         * Evaluates given Yeti expression in this session.
+         *
+         * @param expression to evaluate
+         * @param sourceName to assign to the evaluated code (may be null)
+         * @param bind whether to retain top-level bindings from evaluated
+         *             code in the session (visible for later invocations)
+         * @param arguments to be made available as yeti.lang.io._argv
+         *                  (may be null)
+         * @return evaluation result as Java object (may be null)
+         * @throws Exception from evaluated code
+         * @throws CompileException on compilation errors
+         */
+        public Object evaluate(String expression, String sourceName,
+                               boolean bind, String[] arguments)
+                throws Exception {
+            return Evaluator.this.evaluate(this, expression, sourceName,
+                                           bind, arguments);
+        }
+
+        /**
+         * Forgets top-level bindings in this session that are shadowed
+         * by newer bindings with the same name.
+         */
+        public void trimBindings() {
+            ctx.apply(new LList(new Tag(env, "Env"),
+                        new LList(new Tag(null, "TrimBindings"),
+                            new LList(new Tag(null, "NoExec"), null))), "()");
+        }
+    }
+
+    /**
+     * Compiled expression code, filled by the Compiled option
+     * of evaluateYetiCode.
+     */
+    private static final class Cached extends Fun {
+        Class code;
+        YetiEval env;
+        int bindings;
+
+        public Object apply(Object param) {
+            code = (Class) param;
+            env = YetiEval.get();
+            return null;
+        }
+
+        Object run(String[] arguments) throws Exception {
+            Thread th = Thread.currentThread();
+            ClassLoader oldLoader = th.getContextClassLoader();
+            Object oldArgv = Core.ARGV.get();
+            YetiEval oldEnv = YetiEval.set(env);
+            try {
+                Core.ARGV.set(arguments == null ? new MList()
+                                                : new MList(arguments));
+                th.setContextClassLoader(code.getClassLoader());
+                return ((Fun) code.newInstance()).apply(null);
+            } finally {
+                th.setContextClassLoader(oldLoader);
+                Core.ARGV.set(oldArgv);
+                YetiEval.set(oldEnv);
+            }
+        }
+    }
 }
@@ -251,10 +251,18 @@ class JavaType implements Cloneable {
         String sig;
         String descr;
 
-        Method dup(Method[] arr, int n, YType classType) {
-            if (classType == this.classType ||
-                className.equals(classType.javaType.className())) {
-                this.classType = classType;
+        // The method arrays are shared by compiler threads (see
+        // ParallelCompiler), so methods belonging to other classes are
+        // copied for the caller and classType of the own methods is set
+        // only once, while holding the lock of the declaring type.
+        Method dup(JavaType owner, YType classType) {
+            if (classType == this.classType)
+                return this;
+            if (className.equals(classType.javaType.className())) {
+                synchronized (owner) {
+                    if (this.classType == null)
+                        this.classType = classType;
+                }
                 return this;
             }
             Method m = new Method();
@@ -266,7 +274,6 @@ class JavaType implements Cloneable {
             m.className = className;
             m.sig = sig;
             m.descr = descr;
-            arr[n] = m;
             return m;
         }
 
@@ -867,7 +874,7 @@ class JavaType implements Cloneable {
             }
         }
         if (res != -1) {
-            return ma[res].dup(ma, res, objType);
+            return ma[res].dup(this, objType);
         }
         StringBuilder err = new StringBuilder("No suitable method ")
                                 .append(name).append('(');
@@ -960,12 +967,18 @@ class JavaType implements Cloneable {
                         ref.name + " not found in " + jt.dottedName());
         }
         if (field.classType != objType) {
+            // The field maps are shared by compiler threads (see
+            // ParallelCompiler), so handle them like Method.dup does.
             if (!field.className.equals(objType.javaType.className())) {
                 field = new Field(field.name, field.access,
                                   field.className, field.type);
-                fm.put(field.name, field);
+                field.classType = objType;
+            } else {
+                synchronized (jt) {
+                    if (field.classType == null)
+                        field.classType = objType;
+                }
             }
-            field.classType = objType;
         }
         return field;
     }
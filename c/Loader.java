@@ -46,8 +46,10 @@ class Loader extends Fun2 {
         String name = (String) className;
 
         // to a dotted classname used by loadClass
-        mem.classes.put(name.substring(0, name.length() - 6).replace('/', '.'),
-                        codeBytes);
+        name = name.substring(0, name.length() - 6).replace('/', '.');
+        synchronized (mem) {
+            mem.classes.put(name, codeBytes);
+        }
         return null;
     }
 }
@@ -61,15 +63,23 @@ class MemLoader extends ClassLoader {
 
     // override loadClass to ensure loading our own class
     // even when it already exists in current classpath
-    protected synchronized Class loadClass(String name, boolean resolve)
+    protected Class loadClass(String name, boolean resolve)
             throws ClassNotFoundException {
+        // already defined classes are found without locking,
+        // as evaluated code can be executed by many threads
         Class loaded = findLoadedClass(name);
         if (loaded == null) {
-            byte[] code = (byte[]) classes.get(name);
-            if (code == null) {
-                return super.loadClass(name, resolve);
+            synchronized (this) {
+                if ((loaded = findLoadedClass(name)) == null) {
+                    byte[] code = (byte[]) classes.get(name);
+                    if (code == null) {
+                        return super.loadClass(name, resolve);
+                    }
+                    loaded = defineClass(name, code, 0, code.length);
+                    // the bytecode isn't needed after defining the class
+                    classes.remove(name);
+                }
             }
-            loaded = defineClass(name, code, 0, code.length);
         }
         if (resolve) {
             resolveClass(loaded);
@@ -80,8 +90,11 @@ class MemLoader extends ClassLoader {
     public InputStream getResourceAsStream(String path) {
         if (path.endsWith(".class")) {
             String name =
-                path.substring(0, path.length() - 6).replace('.', '/');
-            byte[] code = (byte[]) classes.get(name);
+                path.substring(0, path.length() - 6).replace('/', '.');
+            byte[] code;
+            synchronized (this) {
+                code = (byte[]) classes.get(name);
+            }
             if (code != null)
                 return new ByteArrayInputStream(code);
         }
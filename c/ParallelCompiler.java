@@ -0,0 +1,318 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti language compiler parallel module compilation.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang.compiler;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import yeti.lang.Fun;
+import yeti.lang.Fun2;
+
+/*
+ * Compiles a set of Yeti source files on a worker pool.
+ *
+ * The sources are first parsed to find the module names and `load`
+ * dependencies between them, and a source is compiled once all the
+ * modules it loads from the same set are done. Each worker thread has
+ * its own Compiler instance (see Compiler.fork), so the compiler state
+ * is never shared. Workers see the modules compiled by others through
+ * the shared ClassFinder defined classes, in the same way as modules
+ * from the class path.
+ *
+ * When the dependency graph can't be determined in advance (parse
+ * errors, cycles or loaded modules that would be compiled from the
+ * source path), build() returns false and the caller should compile
+ * the sources sequentially, which also gives proper error messages.
+ *
+ * A failed module stops only the modules depending on it, so the set
+ * of compiled modules doesn't depend on the thread timing, and the
+ * error reported is the first failure in the dependency order.
+ */
+final class ParallelCompiler {
+    private final Compiler main;
+    private final int flags;
+    private final int threads;
+    private final Fun writer;
+    private Unit[] units;
+    private List order; // units in dependency order
+    private ExecutorService pool;
+    private int running;
+    private Exception error;
+
+    private final ThreadLocal compilers = new ThreadLocal() {
+        protected Object initialValue() {
+            return main.fork(writer);
+        }
+    };
+
+    private static final class Unit {
+        final String source;
+        String canonicalFile;
+        String name; // lower-cased module name, null for programs
+        List loads = new ArrayList();
+        List dependents = new ArrayList();
+        List deps = new ArrayList();
+        int waiting;
+        ModuleType type;
+        List warnings;
+        Exception error;
+
+        Unit(String source) {
+            this.source = source;
+        }
+    }
+
+    // Class writer shared by all workers.
+    private static final class SyncWriter extends Fun2 {
+        private final Fun writer;
+
+        SyncWriter(Fun writer) {
+            this.writer = writer;
+        }
+
+        public synchronized Object apply(Object name, Object content) {
+            return writer.apply(name, content);
+        }
+    }
+
+    ParallelCompiler(Compiler main, int flags, int threads) {
+        this.main = main;
+        this.flags = flags;
+        this.threads = threads;
+        this.writer = new SyncWriter(main.writer);
+    }
+
+    private void scan(Unit u) throws Exception {
+        YetiAnalyzer anal = new YetiAnalyzer();
+        char[] src = main.readSourceFile(null, u.source, anal);
+        u.canonicalFile = anal.canonicalFile;
+        YetiParser.Parser parser = new YetiParser.Parser(u.source, src,
+                                        flags | main.globalFlags);
+        parser.parse(new YetiAnalyzer.TopLevel());
+        if (parser.isModule)
+            u.name = parser.moduleName.toLowerCase();
+        for (YetiParser.XNode l = parser.loads; l != null;
+                l = (YetiParser.XNode) l.expr[1])
+            u.loads.add(l.expr[0].sym().toLowerCase());
+    }
+
+    // Finds the unit for loaded module name, like the source path search.
+    private Unit find(Map byName, String name) {
+        Unit u = (Unit) byName.get(name);
+        if (u != null)
+            return u;
+        String suffix = '/' + name + ".yeti";
+        for (int i = 0; i < units.length; ++i)
+            if (units[i].name != null && units[i].canonicalFile
+                    .replace(File.separatorChar, '/').toLowerCase()
+                    .endsWith(suffix))
+                return units[i];
+        return null;
+    }
+
+    private boolean link() {
+        Map byName = new HashMap();
+        for (int i = 0; i < units.length; ++i)
+            if (units[i].name != null &&
+                    byName.put(units[i].name, units[i]) != null)
+                return false; // duplicate, let the compiler complain
+        List preload = new ArrayList();
+        for (int i = 0; i < main.preload.length; ++i) {
+            Unit p = (Unit) byName.get(main.preload[i].toLowerCase());
+            if (p != null)
+                preload.add(p);
+        }
+        for (int i = 0; i < units.length; ++i) {
+            Unit u = units[i];
+            Set deps = new LinkedHashSet(preload);
+            deps.remove(u);
+            for (int j = 0, cnt = u.loads.size(); j < cnt; ++j) {
+                String name = (String) u.loads.get(j);
+                Unit d = find(byName, name);
+                if (d != null) {
+                    deps.add(d);
+                    continue;
+                }
+                // not in the set, must be already compiled
+                InputStream in =
+                    main.classPath.findClass(name + ".class", null);
+                if (in == null)
+                    return false;
+                try {
+                    in.close();
+                } catch (Exception ex) {
+                }
+            }
+            u.deps.addAll(deps);
+            u.waiting = deps.size();
+            for (Iterator j = deps.iterator(); j.hasNext();)
+                ((Unit) j.next()).dependents.add(u);
+        }
+        // check for cycles
+        int[] waiting = new int[units.length];
+        List ready = new ArrayList();
+        Map index = new IdentityHashMap();
+        for (int i = 0; i < units.length; ++i) {
+            index.put(units[i], new Integer(i));
+            if ((waiting[i] = units[i].waiting) == 0)
+                ready.add(units[i]);
+        }
+        for (int i = 0; i < ready.size(); ++i) {
+            List dependents = ((Unit) ready.get(i)).dependents;
+            for (int j = 0, cnt = dependents.size(); j < cnt; ++j) {
+                Object d = dependents.get(j);
+                if (--waiting[((Integer) index.get(d)).intValue()] == 0)
+                    ready.add(d);
+            }
+        }
+        order = ready;
+        return ready.size() == units.length;
+    }
+
+    private void compile(Unit u) throws Exception {
+        Compiler c = (Compiler) compilers.get();
+        for (int i = 0, cnt = u.deps.size(); i < cnt; ++i) {
+            ModuleType dt = ((Unit) u.deps.get(i)).type;
+            if (c.types.containsKey(dt.name))
+                continue;
+            ModuleType t = c.moduleType(dt.name);
+            if (t == null) // up to date class in destination directory
+                c.types.put(dt.name, t = YetiTypeVisitor.readType(c,
+                    new FileInputStream(new File(c.depDestDir,
+                                                 dt.name + ".class"))));
+            t.lastModified = dt.lastModified;
+            t.hasSource = true;
+            t.topDoc = dt.topDoc;
+        }
+        u.type = c.compile(u.source, null, flags);
+        u.warnings = c.takeWarnings();
+    }
+
+    private synchronized void submit(final Unit u) {
+        ++running;
+        pool.execute(new Runnable() {
+            public void run() {
+                Exception ex = null;
+                try {
+                    compile(u);
+                } catch (Exception e) {
+                    ex = e;
+                } catch (StackOverflowError e) {
+                    ex = new CompileException(0, 0, "Stack overflow");
+                }
+                done(u, ex);
+            }
+        });
+    }
+
+    private synchronized void done(Unit u, Exception ex) {
+        if (ex != null) {
+            u.error = ex;
+        } else {
+            for (int i = 0, cnt = u.dependents.size(); i < cnt; ++i) {
+                Unit d = (Unit) u.dependents.get(i);
+                if (--d.waiting == 0)
+                    submit(d);
+            }
+        }
+        if (--running == 0)
+            notifyAll();
+    }
+
+    private synchronized void await() throws InterruptedException {
+        while (running > 0)
+            wait();
+    }
+
+    /*
+     * Compiles the sources, returning false without compiling anything,
+     * if the parallel compilation isn't possible. The compiled module
+     * types and warnings are stored into main compiler as if compiled
+     * there sequentially. Returns the program class name via mainClass.
+     */
+    boolean build(String[] sources, int count, String[] mainClass)
+            throws Exception {
+        units = new Unit[count];
+        for (int i = 0; i < count; ++i)
+            units[i] = new Unit(sources[i]);
+        pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < count; ++i) {
+                final Unit u = units[i];
+                synchronized (this) {
+                    ++running;
+                }
+                pool.execute(new Runnable() {
+                    public void run() {
+                        Exception ex = null;
+                        try {
+                            scan(u);
+                        } catch (Exception e) {
+                            ex = e;
+                        }
+                        synchronized (ParallelCompiler.this) {
+                            if (ex != null && error == null)
+                                error = ex;
+                            if (--running == 0)
+                                ParallelCompiler.this.notifyAll();
+                        }
+                    }
+                });
+            }
+            await();
+            if (error != null || !link())
+                return false;
+            for (int i = 0; i < count; ++i)
+                if (units[i].waiting == 0)
+                    submit(units[i]);
+            await();
+        } finally {
+            pool.shutdown();
+        }
+        for (int i = 0; i < count; ++i)
+            if (units[i].warnings != null)
+                main.addWarnings(units[i].warnings);
+        for (int i = 0; i < count; ++i)
+            if ((error = ((Unit) order.get(i)).error) != null)
+                throw error;
+        for (int i = 0; i < count; ++i) {
+            ModuleType t = units[i].type;
+            if (units[i].name != null)
+                main.types.put(t.name, t);
+            else
+                mainClass[0] = t.name;
+        }
+        return true;
+    }
+}
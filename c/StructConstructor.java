@@ -56,6 +56,11 @@ final class StructField implements Opcodes {
  * Being a closure allows inlining property getters/setters.
  */
 final class StructConstructor extends CapturingClosure implements Comparator {
+    // larger structures are ArrayStruct instances or generated classes
+    // finding fields by name through yeti.lang.StructIndex
+    private static final int MAX_SCAN_FIELDS = 15;
+    private static final String ARRAY_STRUCT = "yeti/lang/ArrayStruct";
+
     StructField[] fields;
     StructField[] fieldsOrigOrder;
     int fieldCount;
@@ -143,7 +148,7 @@ final class StructConstructor extends CapturingClosure implements Comparator {
                 ctx.insn(POP);
                 field.value.gen(ctx);
             } else if (impl == null) {
-                // GenericStruct
+                // struct class is being generated
                 ctx.ldcInsn(field.name);
                 ctx.methodInsn(INVOKEINTERFACE, "yeti/lang/Struct", "get",
                                "(Ljava/lang/String;)Ljava/lang/Object;");
@@ -153,16 +158,13 @@ final class StructConstructor extends CapturingClosure implements Comparator {
                 ctx.methodInsn(INVOKEINTERFACE, "yeti/lang/Struct",
                                "get", "(I)Ljava/lang/Object;");
             } else {
-                ctx.fieldInsn(GETFIELD, impl, field.javaName,
-                              "Ljava/lang/Object;");
+                genFieldGet(ctx, field);
             }
         }
 
         public void genSet(Ctx ctx, Code value) {
             if (impl != null && field.property == 0) {
-                value.gen(ctx);
-                ctx.fieldInsn(PUTFIELD, impl, field.javaName,
-                              "Ljava/lang/Object;");
+                genFieldSet(ctx, field, value);
                 return;
             }
             ctx.ldcInsn(field.name);
@@ -180,6 +182,78 @@ final class StructConstructor extends CapturingClosure implements Comparator {
         }
     }
 
+    /*
+     * Returns the constructor, when the code is a reference to an
+     * immutable binding of the structure created by it, and the structure
+     * stores the named field directly in a field of its implementation
+     * class. Otherwise the structure can be anything with suitable type,
+     * and has to be accessed through the yeti.lang.Struct interface.
+     */
+    static StructConstructor knownShape(Code st, String name) {
+        for (;;) {
+            if (st instanceof CaptureRef)
+                st = ((CaptureRef) st).ref;
+            else if (st instanceof BindWrapper)
+                st = ((BindWrapper) st).ref;
+            else
+                break;
+        }
+        if (!(st instanceof BindRef) || !st.flagop(PURE))
+            return null;
+        st = ((BindRef) st).unref(true);
+        if (!(st instanceof StructConstructor))
+            return null;
+        StructConstructor sc = (StructConstructor) st;
+        // impl is known only after the constructor code has been generated
+        if (sc.impl == null || sc.field(name) == null)
+            return null;
+        return sc;
+    }
+
+    private StructField field(String name) {
+        for (int i = 0; i < fieldCount; ++i)
+            if (fields[i].name == name)
+                return fields[i].inherited || fields[i].property != 0
+                            ? null : fields[i];
+        return null;
+    }
+
+    // structure instance must be on the stack
+    void genGet(Ctx ctx, String name) {
+        ctx.typeInsn(CHECKCAST, impl);
+        genFieldGet(ctx, field(name));
+    }
+
+    // structure instance must be on the stack
+    void genSet(Ctx ctx, String name, Code value) {
+        ctx.typeInsn(CHECKCAST, impl);
+        genFieldSet(ctx, field(name), value);
+    }
+
+    private void genFieldGet(Ctx ctx, StructField field) {
+        if (impl == ARRAY_STRUCT) {
+            ctx.fieldInsn(GETFIELD, impl, "values", "[Ljava/lang/Object;");
+            ctx.intConst(field.index);
+            ctx.insn(AALOAD);
+        } else {
+            ctx.fieldInsn(GETFIELD, impl, field.javaName,
+                          "Ljava/lang/Object;");
+        }
+    }
+
+    private void genFieldSet(Ctx ctx, StructField field, Code value) {
+        if (impl == ARRAY_STRUCT) {
+            ctx.fieldInsn(GETFIELD, impl, "values", "[Ljava/lang/Object;");
+            ctx.intConst(field.index);
+            value.gen(ctx);
+            ctx.insn(AASTORE);
+        } else {
+            value.gen(ctx);
+            ctx.fieldInsn(PUTFIELD, impl, field.javaName,
+                          "Ljava/lang/Object;");
+        }
+    }
+
     StructConstructor(int maxBinds) {
         fields = new StructField[maxBinds];
     }
@@ -266,8 +340,7 @@ final class StructConstructor extends CapturingClosure implements Comparator {
 
     void gen(Ctx ctx) {
         boolean generated = false;
-        // default: null - GenericStruct
-        if (mustGen || fieldCount > 6 && fieldCount <= 15) {
+        if (mustGen || fieldCount > 6 && fieldCount <= MAX_SCAN_FIELDS) {
             impl = genStruct(ctx);
             generated = true;
         } else {
@@ -275,10 +348,12 @@ final class StructConstructor extends CapturingClosure implements Comparator {
                 impl = "yeti/lang/Struct3";
             } else if (fieldCount <= 6) {
                 impl = "yeti/lang/Struct6";
+            } else {
+                impl = ARRAY_STRUCT;
             }
             initBinders(ctx);
         }
-        String implClass = impl != null ? impl : "yeti/lang/GenericStruct";
+        String implClass = impl;
         ctx.typeInsn(NEW, implClass);
         ctx.insn(DUP);
         if (withParent != null) {
@@ -286,6 +361,10 @@ final class StructConstructor extends CapturingClosure implements Comparator {
             ctx.visitInit(implClass, "(Lyeti/lang/Struct;)V");
         } else if (generated) {
             ctx.visitInit(implClass, "()V");
+        } else if (impl == ARRAY_STRUCT) {
+            ctx.constants.structIndex(ctx, fields, fieldCount);
+            ctx.constants.mutableArray(ctx, fields, fieldCount, false);
+            ctx.visitInit(implClass, "(Lyeti/lang/StructIndex;[Z)V");
         } else {
             ctx.constants.structInitArg(ctx, fields, fieldCount, false);
             ctx.visitInit(implClass, "([Ljava/lang/String;[Z)V");
@@ -300,20 +379,22 @@ final class StructConstructor extends CapturingClosure implements Comparator {
             } else {
                 ctx.insn(DUP);
             }
-            if (impl == null)
-                ctx.ldcInsn(fields[i].name);
+            if (impl == ARRAY_STRUCT) {
+                ctx.fieldInsn(GETFIELD, impl, "values",
+                              "[Ljava/lang/Object;");
+                ctx.intConst(i);
+            }
             if (fields[i].binder != null) {
                 fields[i].binder.gen(ctx);
                 ((Function) fields[i].value).finishGen(ctx);
             } else {
                 fields[i].value.gen(ctx);
             }
-            if (impl != null) {
+            if (impl == ARRAY_STRUCT) {
+                ctx.insn(AASTORE);
+            } else {
                 ctx.fieldInsn(PUTFIELD, impl, fields[i].javaName,
                                    "Ljava/lang/Object;");
-            } else {
-                ctx.methodInsn(INVOKEVIRTUAL, "yeti/lang/GenericStruct",
-                        "set", "(Ljava/lang/String;Ljava/lang/Object;)V");
             }
         }
         if (arrayVar != -1)
@@ -464,7 +545,22 @@ final class StructConstructor extends CapturingClosure implements Comparator {
                          "(Ljava/lang/String;)Ljava/lang/Object;");
         m.load(0);
         Label withMutable = null;
-        for (i = 0; i < fieldCount; ++i) {
+        int scanCount = fieldCount;
+        if (fieldCount > MAX_SCAN_FIELDS) {
+            scanCount = 0;
+            // get(index.index(field)), as get(int) does the same
+            next = new Label();
+            m.constants.structIndex(m, fields, fieldCount);
+            m.load(1).methodInsn(INVOKEVIRTUAL, "yeti/lang/StructIndex",
+                                 "index", "(Ljava/lang/String;)I");
+            m.insn(DUP);
+            m.jumpInsn(IFLT, next);
+            m.methodInsn(INVOKEVIRTUAL, cn, "get", "(I)Ljava/lang/Object;");
+            m.insn(ARETURN);
+            m.visitLabel(next);
+            m.insn(POP2);
+        }
+        for (i = 0; i < scanCount; ++i) {
             next = new Label();
             field = fieldsOrigOrder[i];
             m.load(1).ldcInsn(field.name);
@@ -508,15 +604,16 @@ final class StructConstructor extends CapturingClosure implements Comparator {
         m.load(0).varInsn(ILOAD, 1);
         jumps = new Label[fieldCount];
         int mutableCount = 0;
+        withMutable = null;
         for (i = 0; i < fieldCount; ++i) {
             jumps[i] = new Label();
             if (fields[i].mutable)
                 ++mutableCount;
+            if (fields[i].inherited && withMutable == null)
+                withMutable = new Label();
         }
         dflt = new Label();
         m.switchInsn(0, fieldCount - 1, dflt, null, jumps);
-        if (withMutable != null)
-            withMutable = new Label();
         for (i = 0; i < fieldCount; ++i) {
             field = fields[i];
             m.visitLabel(jumps[i]);
@@ -35,6 +35,8 @@ import yeti.renamed.asmx.*;
 import yeti.lang.Tag;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 
 /*
  * Encoding:
@@ -95,8 +97,10 @@ class TypeAttr extends Attribute {
         Map opaque = new HashMap();
 
         void writeMap(Map m) {
+            // sorted, as identity hash order would vary between threads
             if (m != null)
-                for (Iterator i = m.entrySet().iterator(); i.hasNext();) {
+                for (Iterator i = new TreeMap(m).entrySet().iterator();
+                     i.hasNext();) {
                     Map.Entry e = (Map.Entry) i.next();
                     YType t = (YType) e.getValue();
                     if (t.field == YetiType.FIELD_MUTABLE)
@@ -397,6 +401,7 @@ class ModuleType extends YetiParser.Node {
     boolean fromClass;
     boolean hasSource;
     long lastModified;
+    String hash; // SHA-1 of module class, set only when using BuildCache
     private YType[] free;
 
     ModuleType(YType type, Map typeDefs, boolean directFields, int depth) {
@@ -478,6 +483,9 @@ class YetiTypeVisitor extends ClassVisitor {
     static ModuleType readType(Compiler compiler, InputStream in)
             throws IOException {
         YetiTypeVisitor visitor = new YetiTypeVisitor();
+        MessageDigest md = null;
+        if (compiler.cache != null)
+            in = new DigestInputStream(in, md = BuildCache.digest());
         ClassReader reader = new ClassReader(in);
         reader.accept(visitor, new Attribute[] { new TypeAttr(null, compiler) },
                       ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
@@ -489,6 +497,8 @@ class YetiTypeVisitor extends ClassVisitor {
             mt.deprecated = visitor.deprecated;
         mt.name = reader.getClassName();
         mt.fromClass = true;
+        if (md != null)
+            mt.hash = BuildCache.hex(md.digest());
         return mt;
     }
 
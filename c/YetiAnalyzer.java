@@ -681,9 +681,41 @@ public final class YetiAnalyzer extends YetiType {
             throw new CompileException(op,
                 "Non-mutable expression on the left of the assign operator :=");
         assign.type = UNIT_TYPE;
+        if (right instanceof ConcatStrings && left instanceof BindRef)
+            accumulate(((BindRef) left).binder, (ConcatStrings) right, scope);
         return assign;
     }
 
+    /*
+     * Recognises s := s ^ tail inside a loop or function body, where s
+     * is a local string variable. The variable is then kept in StrBuilder,
+     * avoiding the copying of whole string on each append.
+     */
+    static void accumulate(Binder binder, ConcatStrings value, Scope scope) {
+        if (!(binder instanceof BindExpr))
+            return;
+        List tail = new ArrayList();
+        Code first = value;
+        while (first instanceof ConcatStrings) {
+            Code[] param = ((ConcatStrings) first).param;
+            for (int i = param.length; --i > 0; )
+                tail.add(0, param[i]);
+            first = param[0];
+        }
+        if (tail.isEmpty() || !(first instanceof BindRef) ||
+                ((BindRef) first).binder != binder)
+            return;
+        boolean inLoop = false;
+        for (; scope != null && scope.binder != binder; scope = scope.outer)
+            inLoop |= scope.closure != null;
+        if (scope == null || !inLoop)
+            return;
+        value.appendTo = (BindExpr) binder;
+        value.tail = new ConcatStrings((Code[]) tail.toArray(
+                                            new Code[tail.size()]));
+        ((BindExpr) binder).appended = true;
+    }
+
     static Code concatStr(XNode concat, Scope scope, int depth) {
         Code[] parts = new Code[concat.expr.length];
         for (int i = 0; i < parts.length; ++i)
@@ -1513,6 +1545,8 @@ public final class YetiAnalyzer extends YetiType {
     long sourceTime;
     String topDoc; // used to return module doc, when no compilation is done
     ModuleType resolvedType; // used by Compiler.readSource()
+    String cacheKey; // BuildCache key, when the module can be cached
+    Map cached; // classes from BuildCache, used instead of compiling
 
     RootClosure toCode(char[] src) {
         TopLevel topLevel = new TopLevel();
@@ -1546,6 +1580,7 @@ public final class YetiAnalyzer extends YetiType {
             compiler.deriveName(parser, this);
             final String className = parser.moduleName;
             compiler.addClass(className, null, parser.moduleNameLine);
+            List deps = new ArrayList();
             while (parser.loads != null) {
                 XNode l = parser.loads;
                 if ((compiler.globalFlags & Compiler.GF_NO_IMPORT) != 0)
@@ -1554,6 +1589,7 @@ public final class YetiAnalyzer extends YetiType {
                 ModuleType t = 
                    YetiTypeVisitor.getType(compiler, l, l.expr[0].sym(), false);
                 l.expr[1] = t;
+                deps.add(t);
                 if (depsModifiedTime < t.lastModified)
                     depsModifiedTime = t.lastModified;
             }
@@ -1567,6 +1603,7 @@ public final class YetiAnalyzer extends YetiType {
                     ModuleType t = YetiTypeVisitor.getType(compiler,
                                         null, preload[i], false);
                     preloadModules[i] = new LoadModule(preload[i], t, -1);
+                    deps.add(t);
                     scope = explodeStruct(null, preloadModules[i], scope,
                                 null, 0, "yeti/lang/std".equals(preload[i]));
                     if (depsModifiedTime < t.lastModified)
@@ -1586,12 +1623,29 @@ public final class YetiAnalyzer extends YetiType {
                 }
                 return null;
             }
+            if (compiler.cache != null && compiler.writer != null &&
+                    (flags & (Compiler.CF_EVAL |
+                              Compiler.CF_FORCE_COMPILE)) == 0 &&
+                    (cacheKey = compiler.cache.key(compiler, this, src,
+                        className, (ModuleType[]) deps.toArray(
+                            new ModuleType[deps.size()]))) != null &&
+                    (cached = compiler.cache.get(compiler.classPath,
+                                                cacheKey)) != null) {
+                topDoc = parser.topDoc;
+                if (!parser.isModule) {
+                    resolvedType = new ModuleType(UNIT_TYPE, null, true, -1);
+                    resolvedType.name = className;
+                }
+                return null;
+            }
             if (parser.isModule)
                 scope = bindImport("module", className, scope);
             if ((flags & Compiler.CF_EVAL_RESOLVE) != 0) {
                 List binds = YetiEval.get().bindings;
                 for (int i = 0, cnt = binds.size(); i < cnt; ++i) {
                     YetiEval.Binding bind = (YetiEval.Binding) binds.get(i);
+                    if (bind == null) // trimmed
+                        continue;
                     if (bind.isImport) {
                         scope = new Scope(scope, bind.name, null);
                         scope.importClass = new ClassBinding(bind.type);
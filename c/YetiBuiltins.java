@@ -349,10 +349,9 @@ final class Length extends StaticRef {
             { type = res; }
 
             void gen(Ctx ctx) {
-                ctx.typeInsn(NEW, "yeti/lang/IntNum");
-                ctx.insn(DUP);
                 genLong(ctx, arg, line, false);
-                ctx.visitInit("yeti/lang/IntNum", "(J)V");
+                ctx.methodInsn(INVOKESTATIC, "yeti/lang/IntNum",
+                               "valueOf", "(J)Lyeti/lang/IntNum;");
                 ctx.forceType("yeti/lang/Num");
             }
 
@@ -558,6 +557,20 @@ abstract class BinOpRef extends BindRef {
             binGenIf(ctx, arg1, arg2, to, ifTrue);
         }
 
+        void genInt(Ctx ctx, int line, boolean longValue) {
+            if (binFlagop(arg1, arg2, INT_NUM)) {
+                binGenLong(ctx, arg1, arg2);
+                if (!longValue)
+                    ctx.insn(L2I);
+            } else {
+                super.genInt(ctx, line, longValue);
+            }
+        }
+
+        boolean flagop(int fl) {
+            return binFlagop(arg1, arg2, fl);
+        }
+
         void markTail() {
             if (markTail2) {
                 arg2.markTail();
@@ -592,6 +605,16 @@ abstract class BinOpRef extends BindRef {
         throw new UnsupportedOperationException("binGenIf");
     }
 
+    // flags of the application result
+    boolean binFlagop(Code arg1, Code arg2, int fl) {
+        return false;
+    }
+
+    // called only when binFlagop(arg1, arg2, INT_NUM) holds
+    void binGenLong(Ctx ctx, Code arg1, Code arg2) {
+        throw new UnsupportedOperationException("binGenLong");
+    }
+
     boolean flagop(int fl) {
         return (fl & STD_CONST) != 0;
     }
@@ -614,11 +637,48 @@ final class ArithOpFun extends BinOpRef {
         return this; // XXX should copy for type?
     }
 
+    boolean binFlagop(Code arg1, Code arg2, int fl) {
+        if ((fl & (INT_NUM | INT_RANGE)) == 0)
+            return false;
+        if (method == "and" || method == "or" || method == "xor")
+            return arg1.flagop(fl) && arg2.flagop(fl);
+        // int range operands can't overflow long on +, - and *
+        return (fl & INT_NUM) != 0 && (method == "add" ||
+                    method == "sub" || method == "mul") &&
+               arg1.flagop(INT_RANGE) && arg2.flagop(INT_RANGE);
+    }
+
+    void binGenLong(Ctx ctx, Code arg1, Code arg2) {
+        arg1.genInt(ctx, line, true);
+        arg2.genInt(ctx, line, true);
+        ctx.insn(method == "add" ? LADD : method == "sub" ? LSUB :
+                 method == "mul" ? LMUL : method == "and" ? LAND :
+                 method == "or" ? LOR : LXOR);
+    }
+
     void binGen(Ctx ctx, Code arg1, Code arg2) {
         boolean arg2IsInt = arg2.flagop(INT_NUM);
+        if (binFlagop(arg1, arg2, INT_NUM)) {
+            binGenLong(ctx, arg1, arg2);
+            ctx.methodInsn(INVOKESTATIC, "yeti/lang/IntNum",
+                           "valueOf", "(J)Lyeti/lang/IntNum;");
+            ctx.forceType("yeti/lang/Num");
+            return;
+        }
+        if (arg2IsInt && arg1.flagop(INT_NUM) && (method == "add" ||
+                method == "sub" || method == "mul")) {
+            // both known integers, only overflow check is needed
+            arg1.genInt(ctx, line, true);
+            arg2.genInt(ctx, line, true);
+            ctx.visitLine(line);
+            ctx.methodInsn(INVOKESTATIC, "yeti/lang/IntNum",
+                method == "add" ? "plus" : method == "sub" ? "minus"
+                                                           : "times",
+                "(JJ)Lyeti/lang/Num;");
+            ctx.forceType("yeti/lang/Num");
+            return;
+        }
         if (method == "and" && arg2IsInt) {
-            ctx.typeInsn(NEW, "yeti/lang/IntNum");
-            ctx.insn(DUP);
             arg1.gen(ctx);
             ctx.visitLine(line);
             ctx.typeInsn(CHECKCAST, "yeti/lang/Num");
@@ -626,7 +686,8 @@ final class ArithOpFun extends BinOpRef {
                                 "longValue", "()J");
             arg2.genInt(ctx, line, true);
             ctx.insn(LAND);
-            ctx.visitInit("yeti/lang/IntNum", "(J)V");
+            ctx.methodInsn(INVOKESTATIC, "yeti/lang/IntNum",
+                           "valueOf", "(J)Lyeti/lang/IntNum;");
             ctx.forceType("yeti/lang/Num");
             return;
         }
@@ -639,7 +700,9 @@ final class ArithOpFun extends BinOpRef {
                 ctx.insn(INEG);
             ctx.methodInsn(INVOKEVIRTUAL, "yeti/lang/Num",
                            "shl", "(I)Lyeti/lang/Num;");
-        } else if (arg2IsInt) {
+        } else if (arg2IsInt && (method != "intDiv" && method != "rem" ||
+                                 arg2.flagop(INT_RANGE))) {
+            // intDiv and rem have only int overloads
             boolean ii = method == "intDiv" || method == "rem";
             arg2.genInt(ctx, line, !ii);
             ctx.visitLine(line);
@@ -729,6 +792,22 @@ final class CompareFun extends BoolBinOp {
             if (!eq && ctx.compilation.isGCJ)
                 ctx.typeInsn(CHECKCAST, "java/lang/Comparable");
             ctx.insn(SWAP); // 1-2
+        } else if (eq && (arg2 instanceof StringConstant &&
+                          StrOp.isSlice(arg1) ||
+                          arg1 instanceof StringConstant &&
+                          StrOp.isSlice(arg2))) {
+            // compare the slice without creating substring
+            Code str = arg1;
+            if (arg1 instanceof StringConstant) {
+                arg1 = arg2;
+                arg2 = str;
+            }
+            ((StrOp.StrApply) arg1).genSlice(ctx);
+            ctx.ldcInsn(((StringConstant) arg2).str);
+            ctx.methodInsn(INVOKESTATIC, "yeti/lang/Core", "sliceEquals",
+                           "(Ljava/lang/String;IILjava/lang/String;)Z");
+            ctx.jumpInsn(op == COND_EQ ? IFNE : IFEQ, to);
+            return;
         } else if (arg2 instanceof StringConstant &&
                    ((StringConstant) arg2).str.length() == 0 &&
                    (op & COND_LT) == 0) {
@@ -738,6 +817,13 @@ final class CompareFun extends BoolBinOp {
             ctx.methodInsn(INVOKEVIRTUAL, "java/lang/String", "length", "()I");
             ctx.jumpInsn((op & COND_NOT) == (op >>> 2) ? IFEQ : IFNE, to);
             return;
+        } else if (arg2.flagop(INT_NUM) && arg1.flagop(INT_NUM)) {
+            arg1.genInt(ctx, line, true);
+            arg2.genInt(ctx, line, true);
+            ctx.visitLine(line);
+            ctx.insn(LCMP);
+            ctx.jumpInsn(OPS[op], to);
+            return;
         } else {
             arg1.gen(ctx);
             ctx.visitLine(line);
@@ -1222,6 +1308,38 @@ final class StrOp extends StaticRef implements Binder {
             super.gen(ctx);
         }
 
+        // whether this is a full strSlice or strRight application
+        boolean slice() {
+            if (method != "substring")
+                return false;
+            int n = 0;
+            for (StrApply a = this; a != null; a = a.prev)
+                ++n;
+            return n == argTypes.length;
+        }
+
+        // Generates the string, start and end index of the slice,
+        // so that the consumer can avoid creating the substring.
+        void genSlice(Ctx ctx) {
+            StrApply str = this;
+            while (str.prev != null)
+                str = str.prev;
+            str.arg.gen(ctx);
+            ctx.visitLine(line);
+            ctx.typeInsn(CHECKCAST, "java/lang/String");
+            if (prev == str) { // strRight
+                ctx.insn(DUP);
+                JavaExpr.convertedArg(ctx, arg, argTypes[0], line);
+                ctx.insn(SWAP);
+                ctx.methodInsn(INVOKEVIRTUAL, "java/lang/String",
+                               "length", "()I");
+            } else {
+                JavaExpr.convertedArg(ctx, prev.arg, argTypes[0], prev.line);
+                JavaExpr.convertedArg(ctx, arg, argTypes[1], line);
+            }
+            ctx.visitLine(line);
+        }
+
         void gen(Ctx ctx) {
             genIf(ctx, null, false);
         }
@@ -1237,7 +1355,16 @@ final class StrOp extends StaticRef implements Binder {
                     ((StrApply) argv.get(i)).genApply(ctx);
                 return;
             }
-            ((StrApply) argv.get(argv.size() - 1)).arg.gen(ctx);
+            Code str = ((StrApply) argv.get(argv.size() - 1)).arg;
+            if (method == "trim" && str instanceof StrApply &&
+                    ((StrApply) str).slice()) {
+                ((StrApply) str).genSlice(ctx);
+                ctx.methodInsn(INVOKESTATIC, "yeti/lang/Core", "trimSlice",
+                               "(Ljava/lang/String;II)Ljava/lang/String;");
+                ctx.forceType("java/lang/String");
+                return;
+            }
+            str.gen(ctx);
             ctx.visitLine(line);
             ctx.typeInsn(CHECKCAST, "java/lang/String");
             for (int i = 0, last = argv.size() - 2; i <= last; ++i) {
@@ -1262,6 +1389,10 @@ final class StrOp extends StaticRef implements Binder {
         }
     }
 
+    static boolean isSlice(Code code) {
+        return code instanceof StrApply && ((StrApply) code).slice();
+    }
+
     StrOp(String fun, String method, String sig, YType type) {
         super(mangle(fun), type, false, 0);
         this.method = method;
@@ -65,10 +65,64 @@ class Apply extends Code {
         this.line = line;
     }
 
+    // Gives stage kind for lazy std list function applied by this
+    // ('m' - map, 'f' - filter, 't' - takeWhile, 'c' - concat) or 0.
+    private char listStage() {
+        if (fun instanceof Apply) {
+            Code f = ((Apply) fun).fun;
+            if (StaticRef.std(f, "map"))
+                return 'm';
+            if (StaticRef.std(f, "filter"))
+                return 'f';
+            if (StaticRef.std(f, "takeWhile"))
+                return 't';
+        } else if (StaticRef.std(fun, "concat")) {
+            return 'c';
+        }
+        return 0;
+    }
+
+    // Chains of list functions are fused into single FusedList pipeline,
+    // as the intermediate lists are not visible to anything else.
+    private boolean genFused(Ctx ctx) {
+        if (listStage() == 0 || !(arg instanceof Apply) ||
+                ((Apply) arg).listStage() == 0)
+            return false;
+        StringBuilder stages = new StringBuilder();
+        List args = new ArrayList();
+        Code src = this;
+        char stage;
+        while (src instanceof Apply &&
+               (stage = ((Apply) src).listStage()) != 0) {
+            Apply a = (Apply) src;
+            stages.append(stage);
+            if (stage != 'c')
+                args.add(((Apply) a.fun).arg);
+            src = a.arg;
+        }
+        args.add(src);
+        ctx.intConst(args.size());
+        ctx.typeInsn(ANEWARRAY, "java/lang/Object");
+        for (int i = 0; i < args.size(); ++i) {
+            ctx.insn(DUP);
+            ctx.intConst(i);
+            ((Code) args.get(i)).gen(ctx);
+            ctx.insn(AASTORE);
+        }
+        ctx.ldcInsn(stages.toString());
+        ctx.visitLine(line);
+        ctx.methodInsn(INVOKESTATIC, "yeti/lang/FusedList", "pipe",
+                "([Ljava/lang/Object;Ljava/lang/String;)Lyeti/lang/AList;");
+        return true;
+    }
+
     void gen(Ctx ctx) {
         Function f;
         int argc = 0;
 
+        if (genFused(ctx))
+            return;
+
         // Function sets its methodImpl field, if it has determined that
         // it optimises itself into simple method.
         if (ref != null &&
@@ -121,18 +121,25 @@ final class Constants implements Opcodes {
     void structInitArg(Ctx ctx_, StructField[] fields,
                        int fieldCount, boolean nomutable) {
         String[] fieldNameArr = new String[fieldCount + 1];
-        char[] mutableArr = new char[fieldNameArr.length];
+        for (int i = 1; i < fieldNameArr.length; ++i)
+            fieldNameArr[i] = fields[i - 1].name;
+        stringArray(ctx_, fieldNameArr);
+        mutableArray(ctx_, fields, fieldCount, nomutable);
+    }
+
+    // generates [Z of mutable fields (or null) into stack
+    void mutableArray(Ctx ctx_, StructField[] fields,
+                      int fieldCount, boolean nomutable) {
+        char[] mutableArr = new char[fieldCount + 1];
         mutableArr[0] = '@';
         int i, mutableCount = 0;
-        for (i = 1; i < fieldNameArr.length; ++i) {
+        for (i = 1; i < mutableArr.length; ++i) {
             StructField f = fields[i - 1];
-            fieldNameArr[i] = f.name;
             if (f.mutable || f.property > 0) {
                 mutableArr[i] = '\001';
                 ++mutableCount;
             }
         }
-        stringArray(ctx_, fieldNameArr);
         if (nomutable || mutableCount == 0) {
             ctx_.insn(ACONST_NULL);
             return;
@@ -143,6 +150,8 @@ final class Constants implements Opcodes {
             name = "_".concat(Integer.toString(ctx.fieldCounter++));
             ctx.cw.visitField(ACC_STATIC | ACC_FINAL | ACC_SYNTHETIC,
                               name, "[Z", null, null).visitEnd();
+            if (sb == null)
+                sb = ctx.newMethod(ACC_STATIC, "<clinit>", "()V");
             sb.intConst(fieldCount);
             sb.visitIntInsn(NEWARRAY, T_BOOLEAN);
             for (i = 0; i < fieldCount; ++i) {
@@ -156,6 +165,34 @@ final class Constants implements Opcodes {
         }
         ctx_.fieldInsn(GETSTATIC, ctx.className, name, "[Z");
     }
+
+    // generates shared yeti.lang.StructIndex for the field names into stack
+    void structIndex(Ctx ctx_, StructField[] fields, int fieldCount) {
+        String[] fieldNameArr = new String[fieldCount + 1];
+        StringBuilder key = new StringBuilder("StructIndex");
+        for (int i = 1; i < fieldNameArr.length; ++i) {
+            fieldNameArr[i] = fields[i - 1].name;
+            key.append(',').append(fieldNameArr[i]);
+        }
+        String name = (String) constants.get(key.toString());
+        if (name == null) {
+            name = "_".concat(Integer.toString(ctx.fieldCounter++));
+            ctx.cw.visitField(ACC_STATIC | ACC_FINAL | ACC_SYNTHETIC, name,
+                              "Lyeti/lang/StructIndex;", null, null)
+                  .visitEnd();
+            if (sb == null)
+                sb = ctx.newMethod(ACC_STATIC, "<clinit>", "()V");
+            sb.typeInsn(NEW, "yeti/lang/StructIndex");
+            sb.insn(DUP);
+            stringArray(sb, fieldNameArr);
+            sb.visitInit("yeti/lang/StructIndex", "([Ljava/lang/String;)V");
+            sb.fieldInsn(PUTSTATIC, ctx.className, name,
+                         "Lyeti/lang/StructIndex;");
+            constants.put(key.toString(), name);
+        }
+        ctx_.fieldInsn(GETSTATIC, ctx.className, name,
+                       "Lyeti/lang/StructIndex;");
+    }
 }
 
 final class Ctx implements Opcodes {
@@ -434,6 +471,10 @@ abstract class Code implements Opcodes {
     // code object is a list range
     static final int LIST_RANGE = 0x100;
 
+    // INT_NUM whose value is known to fit into 32-bit int,
+    // so that +, - and * of two such values cannot overflow long
+    static final int INT_RANGE  = 0x200;
+
     YType type;
     boolean polymorph;
 
@@ -626,7 +667,7 @@ abstract class BindRef extends Code {
 }
 
 final class BindWrapper extends BindRef {
-    private BindRef ref;
+    BindRef ref;
 
     BindWrapper(BindRef ref) {
         this.ref = ref;
@@ -708,6 +749,8 @@ final class NumericConstant extends Code implements CodeGen {
 
     boolean flagop(int fl) {
         return ((fl & INT_NUM) != 0 && num instanceof IntNum) ||
+               ((fl & INT_RANGE) != 0 && num instanceof IntNum &&
+                    num.longValue() == num.intValue()) ||
                (fl & STD_CONST) != 0;
     }
 
@@ -723,6 +766,12 @@ final class NumericConstant extends Code implements CodeGen {
         Object val;
 
         void gen(Ctx ctx) {
+            if (sig == null) {
+                ctx.ldcInsn(val);
+                ctx.methodInsn(INVOKESTATIC, jtype, "valueOf",
+                               "(J)Lyeti/lang/IntNum;");
+                return;
+            }
             ctx.typeInsn(NEW, jtype);
             ctx.insn(DUP);
             ctx.ldcInsn(val);
@@ -763,7 +812,6 @@ final class NumericConstant extends Code implements CodeGen {
                 return;
             }
             v.val = new Long(num.longValue());
-            v.sig = "(J)V";
         } else if (num instanceof BigNum) {
             v.jtype = "yeti/lang/BigNum";
             v.val = num.toString();
@@ -852,6 +900,9 @@ final class BooleanConstant extends BindRef {
 
 final class ConcatStrings extends Code {
     Code[] param;
+    // s := s ^ tail accumulation, used when appendTo keeps it in StrBuilder
+    BindExpr appendTo;
+    Code tail;
 
     ConcatStrings(Code[] param) {
         type = YetiType.STR_TYPE;
@@ -859,6 +910,12 @@ final class ConcatStrings extends Code {
     }
 
     void gen(Ctx ctx) {
+        for (int i = 0; i < param.length; ++i) {
+            if (StrOp.isSlice(param[i])) {
+                genWithSlices(ctx);
+                return;
+            }
+        }
         boolean arr = false;
         if (param.length > 2) {
             arr = true;
@@ -888,6 +945,33 @@ final class ConcatStrings extends Code {
                            "concat", "(Ljava/lang/String;)Ljava/lang/String;");
         ctx.forceType("java/lang/String");
     }
+
+    // strSlice parts are appended directly from the sliced string
+    private void genWithSlices(Ctx ctx) {
+        ctx.typeInsn(NEW, "java/lang/StringBuilder");
+        ctx.insn(DUP);
+        ctx.visitInit("java/lang/StringBuilder", "()V");
+        for (int i = 0; i < param.length; ++i) {
+            if (StrOp.isSlice(param[i])) {
+                ((StrOp.StrApply) param[i]).genSlice(ctx);
+                ctx.methodInsn(INVOKESTATIC, "yeti/lang/Core", "appendSlice",
+                    "(Ljava/lang/StringBuilder;Ljava/lang/String;II)" +
+                    "Ljava/lang/StringBuilder;");
+                continue;
+            }
+            param[i].gen(ctx);
+            if (param[i].type.deref().type != YetiType.STR)
+                ctx.methodInsn(INVOKESTATIC, "java/lang/String",
+                    "valueOf", "(Ljava/lang/Object;)Ljava/lang/String;");
+            else
+                ctx.typeInsn(CHECKCAST, "java/lang/String");
+            ctx.methodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append",
+                "(Ljava/lang/String;)Ljava/lang/StringBuilder;");
+        }
+        ctx.methodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder",
+                       "toString", "()Ljava/lang/String;");
+        ctx.forceType("java/lang/String");
+    }
 }
 
 final class NewExpr extends JavaExpr {
@@ -1210,6 +1294,11 @@ abstract class SelectMember extends BindRef implements CodeGen {
     void gen(Ctx ctx) {
         st.gen(ctx);
         ctx.visitLine(line);
+        StructConstructor known = StructConstructor.knownShape(st, name);
+        if (known != null) {
+            known.genGet(ctx, name);
+            return;
+        }
         if (ctx.compilation.isGCJ)
             ctx.typeInsn(CHECKCAST, "yeti/lang/Struct");
         ctx.ldcInsn(name);
@@ -1220,6 +1309,12 @@ abstract class SelectMember extends BindRef implements CodeGen {
     public void gen2(Ctx ctx, Code setValue, int __) {
         st.gen(ctx);
         ctx.visitLine(line);
+        StructConstructor known = StructConstructor.knownShape(st, name);
+        if (known != null) {
+            known.genSet(ctx, name, setValue);
+            ctx.insn(ACONST_NULL);
+            return;
+        }
         if (ctx.compilation.isGCJ)
             ctx.typeInsn(CHECKCAST, "yeti/lang/Struct");
         ctx.ldcInsn(name);
@@ -1412,9 +1507,12 @@ final class BindExpr extends SeqExpr implements Binder, CaptureWrapper {
     Ref refs;
     int evalId = -1;
     private boolean directBind;
+    private boolean longVar; // integer kept unboxed in long local
     private String directField;
     private String myClass;
     private int bindingUsed;
+    boolean appended; // s := s ^ x in a loop, set by the analyzer
+    private boolean accumulate; // string var kept in yeti/lang/StrBuilder
 
     class Ref extends BindRef {
         int arity;
@@ -1423,6 +1521,11 @@ final class BindExpr extends SeqExpr implements Binder, CaptureWrapper {
         void gen(Ctx ctx) {
             if (directBind) {
                 st.gen(ctx);
+            } else if (longVar) {
+                ctx.varInsn(LLOAD, id);
+                ctx.methodInsn(INVOKESTATIC, "yeti/lang/IntNum",
+                               "valueOf", "(J)Lyeti/lang/IntNum;");
+                ctx.forceType("yeti/lang/Num");
             } else {
                 --bindingUsed;
                 genPreGet(ctx);
@@ -1442,9 +1545,23 @@ final class BindExpr extends SeqExpr implements Binder, CaptureWrapper {
             };
         }
 
+        void genInt(Ctx ctx, int line, boolean longValue) {
+            if (directBind) {
+                st.genInt(ctx, line, longValue);
+            } else if (longVar) {
+                ctx.varInsn(LLOAD, id);
+                if (!longValue)
+                    ctx.insn(L2I);
+            } else {
+                super.genInt(ctx, line, longValue);
+            }
+        }
+
         boolean flagop(int fl) {
             if ((fl & ASSIGN) != 0)
                 return var ? assigned = true : false;
+            if ((fl & (INT_NUM | INT_RANGE)) != 0)
+                return !var && st.flagop(fl);
             if ((fl & CONST) != 0)
                 return directBind;
             if ((fl & DIRECT_BIND) != 0)
@@ -1532,13 +1649,22 @@ final class BindExpr extends SeqExpr implements Binder, CaptureWrapper {
             ctx.intConst(id);
             ctx.insn(AALOAD);
         }
+        if (accumulate) {
+            ctx.typeInsn(CHECKCAST, "yeti/lang/StrBuilder");
+            ctx.methodInsn(INVOKEVIRTUAL, "yeti/lang/StrBuilder",
+                           "toString", "()Ljava/lang/String;");
+            ctx.forceType("java/lang/String");
+        }
     }
 
     public void genSet(Ctx ctx, Code value) {
         if (directField == null) {
             ctx.typeInsn(CHECKCAST, "[Ljava/lang/Object;");
             ctx.intConst(id);
-            value.gen(ctx);
+            if (accumulate)
+                genAccumulate(ctx, value, true);
+            else
+                value.gen(ctx);
             ctx.insn(AASTORE);
         } else {
             value.gen(ctx);
@@ -1547,7 +1673,16 @@ final class BindExpr extends SeqExpr implements Binder, CaptureWrapper {
     }
 
     private void genLocalSet(Ctx ctx, Code value) {
-        if (mvar == -1) {
+        if (accumulate) {
+            if (mvar == -1) {
+                genAccumulate(ctx, value, false);
+                ctx.varInsn(ASTORE, id);
+            } else {
+                ctx.load(mvar).intConst(id);
+                genAccumulate(ctx, value, true);
+                ctx.insn(AASTORE);
+            }
+        } else if (mvar == -1) {
             value.gen(ctx);
             if (!javaType.equals("java/lang/Object"))
                 ctx.typeInsn(CHECKCAST, javaType);
@@ -1561,6 +1696,36 @@ final class BindExpr extends SeqExpr implements Binder, CaptureWrapper {
             ctx.insn(AASTORE);
         }
     }
+
+    /*
+     * Gives new StrBuilder value for the accumulated string variable.
+     * The s := s ^ tail appends into the existing buffer, other values
+     * get a fresh one. With inArray the variables array and index are
+     * on the stack, otherwise the local variable is used.
+     */
+    private void genAccumulate(Ctx ctx, Code value, boolean inArray) {
+        if (!(value instanceof ConcatStrings) ||
+                ((ConcatStrings) value).appendTo != this) {
+            ctx.typeInsn(NEW, "yeti/lang/StrBuilder");
+            ctx.insn(DUP);
+            value.gen(ctx);
+            ctx.typeInsn(CHECKCAST, "java/lang/String");
+            ctx.visitInit("yeti/lang/StrBuilder", "(Ljava/lang/String;)V");
+            return;
+        }
+        if (inArray) {
+            ctx.insn(DUP2);
+            ctx.insn(AALOAD);
+            ctx.typeInsn(CHECKCAST, "yeti/lang/StrBuilder");
+        } else {
+            ctx.load(id);
+        }
+        ctx.insn(DUP);
+        ctx.methodInsn(INVOKEVIRTUAL, "yeti/lang/StrBuilder", "length", "()I");
+        ((ConcatStrings) value).tail.gen(ctx);
+        ctx.methodInsn(INVOKEVIRTUAL, "yeti/lang/StrBuilder", "append",
+                       "(ILjava/lang/String;)Lyeti/lang/StrBuilder;");
+    }
     
     // called by Function.prepareConst when this bastard mutates into method
     void setCaptureType(String type) {
@@ -1576,12 +1741,26 @@ final class BindExpr extends SeqExpr implements Binder, CaptureWrapper {
             directBind = true;
             return;
         }
+        if (appended && directField == null && evalId == -1) {
+            accumulate = true;
+            setCaptureType("yeti/lang/StrBuilder");
+        }
         if (directField == "") { // forceDirect, JavaClass does it
             myClass = ctx.className;
             directField =
                 "$".concat(Integer.toString(ctx.constants.ctx.fieldCounter++));
             ctx.cw.visitField(ACC_STATIC | ACC_SYNTHETIC | ACC_VOLATILE,
                               directField, javaDescr, null, null).visitEnd();
+        } else if (mvar == -1 && !var && evalId == -1 &&
+                   st.flagop(INT_NUM)) {
+            // the value is known to be integer in long range,
+            // so it can be kept in primitive local variable
+            longVar = true;
+            id = ctx.localVarCount;
+            ctx.localVarCount += 2;
+            st.genInt(ctx, 0, true);
+            ctx.varInsn(LSTORE, id);
+            return;
         } else if (mvar == -1) {
             id = ctx.localVarCount++;
         }
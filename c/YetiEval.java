@@ -31,13 +31,16 @@
 package yeti.lang.compiler;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class YetiEval {
     private static ThreadLocal instance = new ThreadLocal();
-    List bindings = new ArrayList();
+    // Executing code reads the bindings concurrently with compiling
+    // other code in the same environment, that may add new ones.
+    List bindings = new CopyOnWriteArrayList();
 
     static class Binding {
-        Object[] value;
+        volatile Object[] value;
         int index;
         int bindId;
         String name;
@@ -84,14 +87,30 @@ public class YetiEval {
 
     public static void setBind(int binding, Object[] value, int index) {
         Binding bind = ((Binding) get().bindings.get(binding));
-        bind.value = value;
         bind.index = index;
+        bind.value = value;
     }
 
     public static void setBind(int binding, Object value) {
         setBind(binding, new Object[] { value }, 0);
     }
 
+    /**
+     * Forgets bindings shadowed by newer bindings with the same name,
+     * allowing their values to be garbage collected. Newly compiled code
+     * can't refer to shadowed bindings, and code already executed has
+     * captured the value arrays it uses. The binding ids are preserved.
+     */
+    public void trim() {
+        Set seen = new HashSet();
+        for (int i = bindings.size(); --i >= 0;) {
+            Binding bind = (Binding) bindings.get(i);
+            if (bind != null && !bind.isImport && !seen.add(bind.name)) {
+                bindings.set(i, null);
+            }
+        }
+    }
+
     public static Object[] getBind(int binding) {
         return ((Binding) get().bindings.get(binding)).value;
     }
@@ -257,6 +257,8 @@ class YetiType implements YetiParser {
         new YType(MAP, new YType[] { C, NO_TYPE, LIST_TYPE });
     static final YType STRING_ARRAY =
         new YType(MAP, new YType[] { STR_TYPE, NUM_TYPE, LIST_TYPE });
+    static final YType STRING_LIST =
+        new YType(MAP, new YType[] { STR_TYPE, NO_TYPE, LIST_TYPE });
     static final YType CONS_TYPE = fun2Arg(A, A_B_LIST_TYPE, A_LIST_TYPE);
     static final YType LAZYCONS_TYPE =
         fun2Arg(A, fun(UNIT_TYPE, A_B_LIST_TYPE), A_LIST_TYPE);
@@ -355,6 +357,8 @@ class YetiType implements YetiParser {
                 "lastIndexOf", "(Ljava/lang/String;)I",
         bindRegex("strSplit", "yeti/lang/StrSplit",
                   fun2Arg(STR_TYPE, STR_TYPE, STRING_ARRAY), 
+        bindRegex("strSplitLazy", "yeti/lang/StrSplitLazy",
+                  fun2Arg(STR_TYPE, STR_TYPE, STRING_LIST),
         bindRegex("like", "yeti/lang/Like",
                   fun2Arg(STR_TYPE, STR_TYPE, fun(UNIT_TYPE, STRING_ARRAY)), 
         bindRegex("substAll", "yeti/lang/SubstAll",
@@ -377,7 +381,7 @@ class YetiType implements YetiParser {
         bindImport("Long", "java/lang/Long",
         bindImport("Double", "java/lang/Double",
         bindImport("String", "java/lang/String",
-   null))))))))))))))))))))))))))))))))))))))))))))))))))))))))))))))))))))))));
+   null)))))))))))))))))))))))))))))))))))))))))))))))))))))))))))))))))))))))));
 
     static final Scope ROOT_SCOPE_SYS =
         bindImport("System", "java/lang/System",
@@ -0,0 +1,65 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti core library - large structure implementation.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang;
+
+/**
+ * Structure with field values in an array, used for structures having
+ * too many fields for the Struct3/Struct6 and generated classes.
+ * Fields are found by name using the shared StructIndex of the
+ * structure shape.
+ */
+public class ArrayStruct extends AStruct {
+    private final StructIndex index;
+    public final Object[] values;
+
+    public ArrayStruct(StructIndex index, boolean[] vars) {
+        super(index.names, vars);
+        this.index = index;
+        values = new Object[index.names.length];
+    }
+
+    public Object get(String field) {
+        int i = index.index(field);
+        return i < 0 ? null : values[i];
+    }
+
+    public Object get(int field) {
+        return values[field];
+    }
+
+    public void set(String field, Object value) {
+        int i = index.index(field);
+        if (i < 0)
+            super.set(field, value);
+        else
+            values[i] = value;
+    }
+}
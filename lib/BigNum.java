@@ -109,7 +109,7 @@ public final class BigNum extends Num {
     }
 
     public Num intDivFrom(long num) {
-        return new IntNum(BigInteger.valueOf(num).divide(v).longValue());
+        return IntNum.valueOf(BigInteger.valueOf(num).divide(v).longValue());
     }
 
     public Num rem(Num num) {
@@ -117,7 +117,7 @@ public final class BigNum extends Num {
     }
 
     public Num rem(int num) {
-        return new IntNum(v.remainder(BigInteger.valueOf(num)).longValue());
+        return IntNum.valueOf(v.remainder(BigInteger.valueOf(num)).longValue());
     }
 
     public Num remFrom(BigInteger num) {
@@ -125,7 +125,7 @@ public final class BigNum extends Num {
     }
 
     public Num remFrom(long num) {
-        return new IntNum(BigInteger.valueOf(num).remainder(v).longValue());
+        return IntNum.valueOf(BigInteger.valueOf(num).remainder(v).longValue());
     }
 
     public Num sub(Num num) {
@@ -34,43 +34,44 @@ import java.io.IOException;
 import java.io.OutputStream;
 
 /** Yeti core library - Concat list. */
-final class ConcatLists extends LList {
-    private AList rest;
+final class ConcatLists extends LazyNode {
     private AIter src;  // current list?<'a>
     private AIter tail; // list<list?<'a>>
 
     public ConcatLists(AIter src, AIter rest) {
-        super(src.first(), null);
+        super(src.first());
         this.src = src;
         this.tail = rest;
     }
 
-    public synchronized AList rest() {
-        if (src != null) {
-            AIter i = src.next();
-            src = null;
-            // current done? -> rest is concatenation of tail list of lists
-            //  more current -> rest contains the current
-            rest = i == null ? concat(tail) : new ConcatLists(i, tail);
-            tail = null;
-        }
+    AList force() {
+        AIter i = src.next();
+        // current done? -> rest is concatenation of tail list of lists
+        //  more current -> rest contains the current
+        AList rest = i == null ? concat(tail) : new ConcatLists(i, tail);
+        src = null;
+        tail = null;
         return rest;
     }
 
-    synchronized AIter write(OutputStream out) throws IOException {
-        if (src == null)
+    AIter write(OutputStream out) throws IOException {
+        if (!hold())
             return super.write(out);
-        AIter i = src.dup();
-        while (i != null)
-            i = i.write(out);
-        if (tail != null) {
-            AIter lists = tail.dup();
-            do {
-                i = (AIter) lists.first();
-                while (i != null)
-                    i = i.write(out);
-                lists = lists.next();
-            } while (lists != null);
+        try {
+            AIter i = src.dup();
+            while (i != null)
+                i = i.write(out);
+            if (tail != null) {
+                AIter lists = tail.dup();
+                do {
+                    i = (AIter) lists.first();
+                    while (i != null)
+                        i = i.write(out);
+                    lists = lists.next();
+                } while (lists != null);
+            }
+        } finally {
+            release();
         }
         return null;
     }
@@ -101,7 +101,7 @@ public final class Core {
             } while (false);
         }
         if ((l - st) < 96 / radix + 10) // 22, 19, 16
-            return new IntNum(Long.parseLong(s, radix));
+            return IntNum.valueOf(Long.parseLong(s, radix));
         return new BigNum(s, radix);
     }
 
@@ -121,6 +121,39 @@ public final class Core {
         return new String(res);
     }
 
+    // The slice helpers are used by compiled code in place of strSlice
+    // applications, they check the bounds like String#substring() does.
+    private static void checkSlice(String s, int start, int end) {
+        if (start < 0)
+            throw new StringIndexOutOfBoundsException(start);
+        if (end > s.length())
+            throw new StringIndexOutOfBoundsException(end);
+        if (start > end)
+            throw new StringIndexOutOfBoundsException(end - start);
+    }
+
+    public static StringBuilder appendSlice(StringBuilder to, String s,
+                                            int start, int end) {
+        checkSlice(s, start, end);
+        return to.append(s, start, end);
+    }
+
+    public static String trimSlice(String s, int start, int end) {
+        checkSlice(s, start, end);
+        while (start < end && s.charAt(start) <= ' ')
+            ++start;
+        while (end > start && s.charAt(end - 1) <= ' ')
+            --end;
+        return s.substring(start, end);
+    }
+
+    public static boolean sliceEquals(String s, int start, int end,
+                                      String str) {
+        checkSlice(s, start, end);
+        int l = str.length();
+        return end - start == l && s.regionMatches(start, str, 0, l);
+    }
+
     public static String show(Object o) {
         StringBuilder r;
         if (o == null)
@@ -187,7 +220,7 @@ public final class Core {
         byte[] buf = new byte[0 < limit && limit <= 65536 ? limit : 8192];
         int l = 0, n;
         try {
-            while ((n = ((Number) read.apply(buf, new IntNum(l)))
+            while ((n = ((Number) read.apply(buf, IntNum.valueOf(l)))
                         .intValue()) >= 0)
                 if (buf.length - (l += n) < 2048) {
                     int reserve = buf.length << 1;
@@ -31,13 +31,12 @@
 package yeti.lang;
 
 /** Yeti core library - Map list. */
-final class FilterList extends LList {
-    private AList rest;
+final class FilterList extends LazyNode {
     private AIter src;
     private final Fun f;
 
     private FilterList(Object v, AIter src, Fun f) {
-        super(v, null);
+        super(v);
         this.src = src;
         this.f = f;
     }
@@ -49,11 +48,9 @@ final class FilterList extends LList {
         return src == null ? null : new FilterList(first, src, f);
     }
 
-    public synchronized AList rest() {
-        if (src != null) {
-            rest = filter(src.next(), f);
-            src = null;
-        }
+    AList force() {
+        AList rest = filter(src.next(), f);
+        src = null;
         return rest;
     }
 }
@@ -92,18 +92,18 @@ public final class FloatNum extends Num {
                      num.doubleValue();
         return res > 2147483647.0 || res < -2147483647.0
             ? new FloatNum(res >= 0 ? Math.floor(res) : Math.ceil(res))
-            : (Num) new IntNum((long) res);
+            : (Num) IntNum.valueOf((long) res);
     }
 
     public Num intDiv(int num) {
         double res = (v >= 0 ? Math.floor(v) : Math.ceil(v)) / num;
         return res > 2147483647.0 || res < -2147483647.0
             ? new FloatNum(res >= 0 ? Math.floor(res) : Math.ceil(res))
-            : (Num) new IntNum((long) res);
+            : (Num) IntNum.valueOf((long) res);
     }
 
     public Num intDivFrom(long num) {
-        return new IntNum((long)
+        return IntNum.valueOf((long)
             (num / (v >= 0 ? Math.floor(v) : Math.ceil(v))));
     }
 
@@ -113,19 +113,19 @@ public final class FloatNum extends Num {
                     (v >= 0 ? Math.floor(v) : Math.ceil(v));
         return res > 2147483647.0 || res < -2147483647.0
             ? new FloatNum(res >= 0 ? Math.floor(res) : Math.ceil(res))
-            : (Num) new IntNum((long) res);
+            : (Num) IntNum.valueOf((long) res);
     }
 
     public Num rem(Num num) {
-        return new IntNum((long) v % num.longValue());
+        return IntNum.valueOf((long) v % num.longValue());
     }
 
     public Num rem(int num) {
-        return new IntNum((long) v % num);
+        return IntNum.valueOf((long) v % num);
     }
 
     public Num remFrom(long num) {
-        return new IntNum(num % (long) v);
+        return IntNum.valueOf(num % (long) v);
     }
 
     public Num remFrom(BigInteger num) {
@@ -134,7 +134,7 @@ public final class FloatNum extends Num {
                     (v >= 0 ? Math.floor(v) : Math.ceil(v));
         return res > 2147483647.0 || res < -2147483647.0
             ? new FloatNum(res >= 0 ? Math.floor(res) : Math.ceil(res))
-            : (Num) new IntNum((long) res);
+            : (Num) IntNum.valueOf((long) res);
     }
 
     public Num sub(Num num) {
@@ -158,11 +158,11 @@ public final class FloatNum extends Num {
     }
 
     public Num and(Num num) {
-        return new IntNum(num.longValue() & (long) v);
+        return IntNum.valueOf(num.longValue() & (long) v);
     }
 
     public Num and(BigInteger num) {
-        return new IntNum(num.longValue() & (long) v);
+        return IntNum.valueOf(num.longValue() & (long) v);
     }
 
     public Num or(Num num) {
@@ -170,7 +170,7 @@ public final class FloatNum extends Num {
     }
 
     public Num or(long num) {
-        return new IntNum(num | (long) v);
+        return IntNum.valueOf(num | (long) v);
     }
 
     public Num xor(Num num) {
@@ -178,7 +178,7 @@ public final class FloatNum extends Num {
     }
 
     public Num xor(long num) {
-        return new IntNum(num ^ (long) v);
+        return IntNum.valueOf(num ^ (long) v);
     }
 
     public byte byteValue() {
@@ -229,6 +229,10 @@ public final class FloatNum extends Num {
     }
 
     public int hashCode() {
+        return hashCode(v);
+    }
+
+    static int hashCode(double v) {
         // hashCode must be same when equals is same
         // a bit rough, but hopefully it satisfies that condition ;)
         long x = (long) v;
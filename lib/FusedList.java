@@ -0,0 +1,155 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti core library.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang;
+
+/**
+ * Yeti core library - Fused list transformations.
+ * Chain of map, filter, takeWhile and concat applications is evaluated
+ * as one pipeline, allocating single list node per result element.
+ */
+public final class FusedList extends LazyNode {
+    private Pipe pipe; // owned by the last unforced node
+
+    private FusedList(Object first, Pipe pipe) {
+        super(first);
+        this.pipe = pipe;
+    }
+
+    /**
+     * Pipeline state. The stages between concats form segments, each
+     * reading elements from its current iterator (the first segment
+     * reads the source list, others the lists produced by the segment
+     * before it).
+     */
+    private static final class Pipe {
+        private static final Object END = new Object();
+        private final Fun[] funs; // stage functions, null for concat
+        private final char[] ops; // stage kinds, innermost first
+        private final int[] seg;  // index of the first stage of segment
+        private final AIter[] its;
+        private int low; // segments before low have ended
+
+        Pipe(Fun[] funs, char[] ops, int segments, AIter src) {
+            this.funs = funs;
+            this.ops = ops;
+            seg = new int[segments + 1];
+            for (int i = 0, s = 0; i < ops.length; ++i)
+                if (ops[i] == 'c')
+                    seg[++s] = i + 1;
+            seg[segments] = ops.length + 1;
+            its = new AIter[segments];
+            its[0] = src;
+        }
+
+        // gives next value from the segment, or END
+        Object pull(int segment) {
+            int from = seg[segment], to = seg[segment + 1] - 1;
+            for (;;) {
+                if (segment < low)
+                    return END;
+                AIter i = its[segment];
+                if (i == null) {
+                    if (segment == 0)
+                        return END;
+                    Object l = pull(segment - 1);
+                    if (l == END)
+                        return END;
+                    if (l != null && !((AIter) l).isEmpty())
+                        its[segment] = (AIter) l;
+                    continue;
+                }
+                Object v = i.first();
+                boolean keep = true;
+                for (int j = from; keep && j < to; ++j) {
+                    switch (ops[j]) {
+                    case 'm':
+                        v = funs[j].apply(v);
+                        break;
+                    case 'f':
+                        keep = funs[j].apply(v) == Boolean.TRUE;
+                        break;
+                    default: // takeWhile
+                        if (funs[j].apply(v) != Boolean.TRUE) {
+                            low = segment + 1;
+                            return END;
+                        }
+                    }
+                }
+                // advance only after the stages have returned, so that
+                // forcing again after exception retries the element
+                its[segment] = i.next();
+                if (keep)
+                    return v;
+            }
+        }
+
+        FusedList node() {
+            Object v = pull(its.length - 1);
+            return v == END ? null : new FusedList(v, this);
+        }
+    }
+
+    /**
+     * Used by compiler for fused map/filter/takeWhile/concat chains.
+     * The args array contains stage functions outermost first, followed
+     * by the source list, and stages gives the stage kinds in same order
+     * ('m' - map, 'f' - filter, 't' - takeWhile, 'c' - concat,
+     * which has no function in args).
+     */
+    public static AList pipe(Object[] args, String stages) {
+        int n = stages.length(), fn = args.length - 1, segments = 1;
+        AList src = (AList) args[fn];
+        if (n > 0 && stages.charAt(n - 1) == 'm' && src instanceof AMList) {
+            // map is strict on arrays, do it before fusing others
+            // (PArray views use the lazy AList.map, so they're fused)
+            src = src.map((Fun) args[--fn]);
+            --n;
+        }
+        if (src == null || src.isEmpty())
+            return null;
+        Fun[] funs = new Fun[n];
+        char[] ops = new char[n];
+        for (int i = 0, j = 0; i < n; ++i) {
+            char op = ops[n - 1 - i] = stages.charAt(i);
+            if (op == 'c')
+                ++segments;
+            else
+                funs[n - 1 - i] = (Fun) args[j++];
+        }
+        return new Pipe(funs, ops, segments, src).node();
+    }
+
+    AList force() {
+        AList rest = pipe.node();
+        pipe = null;
+        return rest;
+    }
+}
@@ -47,6 +47,41 @@ public final class IntNum extends Num {
     public static final IntNum _8 = new IntNum(8);
     public static final IntNum _9 = new IntNum(9);
 
+    // Shared instances for -128 .. CACHE_HIGH, returned by valueOf.
+    // The upper bound can be set with yeti.lang.IntNum.cache property.
+    private static final int CACHE_HIGH;
+    private static final IntNum[] CACHE;
+
+    static {
+        int high = 1023;
+        try {
+            high = Integer.getInteger("yeti.lang.IntNum.cache", high)
+                          .intValue();
+        } catch (SecurityException ex) {
+        }
+        if (high < 9)
+            high = 9;
+        else if (high > 0x3fffffff)
+            high = 0x3fffffff;
+        IntNum[] cache = new IntNum[high + 129];
+        for (int i = 0; i < cache.length; ++i)
+            cache[i] = new IntNum(i - 128);
+        cache[126] = __2;
+        cache[127] = __1;
+        cache[128] = _0;
+        cache[129] = _1;
+        cache[130] = _2;
+        cache[131] = _3;
+        cache[132] = _4;
+        cache[133] = _5;
+        cache[134] = _6;
+        cache[135] = _7;
+        cache[136] = _8;
+        cache[137] = _9;
+        CACHE_HIGH = high;
+        CACHE = cache;
+    }
+
     private final long v;
 
     public IntNum(int num) {
@@ -57,6 +92,42 @@ public final class IntNum extends Num {
         v = num;
     }
 
+    /**
+     * Returns IntNum with given value, using shared instance
+     * for small numbers instead of allocating new one.
+     */
+    public static IntNum valueOf(long num) {
+        return num >= -128 && num <= CACHE_HIGH
+                ? CACHE[(int) num + 128] : new IntNum(num);
+    }
+
+    // Checked long arithmetic for compiled code, where both operands
+    // are known to be integers. Overflow promotes the result to BigNum.
+    public static Num plus(long a, long b) {
+        long r = a + b;
+        if (((a ^ r) & (b ^ r)) < 0)
+            return new BigNum(BigInteger.valueOf(a).add(
+                                BigInteger.valueOf(b)));
+        return valueOf(r);
+    }
+
+    public static Num minus(long a, long b) {
+        long r = a - b;
+        if (((a ^ b) & (a ^ r)) < 0)
+            return new BigNum(BigInteger.valueOf(a).subtract(
+                                BigInteger.valueOf(b)));
+        return valueOf(r);
+    }
+
+    public static Num times(long a, long b) {
+        long r = a * b;
+        if (((a < 0 ? -a : a) | (b < 0 ? -b : b)) >>> 31 != 0 &&
+            (b != 0 && r / b != a || a == Long.MIN_VALUE && b == -1))
+            return new BigNum(BigInteger.valueOf(a).multiply(
+                                BigInteger.valueOf(b)));
+        return valueOf(r);
+    }
+
     public Num add(Num num) {
         return num.add(v);
     }
@@ -71,7 +142,7 @@ public final class IntNum extends Num {
             return new BigNum(BigInteger.valueOf(v).add(
                                 BigInteger.valueOf(num)));
         }
-        return new IntNum(v + num);
+        return valueOf(v + num);
     }
 
     public Num add(BigInteger num) {
@@ -88,7 +159,7 @@ public final class IntNum extends Num {
             return new BigNum(BigInteger.valueOf(v).multiply(
                                 BigInteger.valueOf(num)));
         }
-        return new IntNum(v * num);
+        return valueOf(v * num);
     }
 
     public Num mul(BigInteger num) {
@@ -120,11 +191,11 @@ public final class IntNum extends Num {
     }
 
     public Num intDiv(int num) {
-        return new IntNum(v / num);
+        return valueOf(v / num);
     }
 
     public Num intDivFrom(long num) {
-        return new IntNum(num / v);
+        return valueOf(num / v);
     }
 
     public Num intDivFrom(BigInteger num) {
@@ -136,11 +207,11 @@ public final class IntNum extends Num {
     }
 
     public Num rem(int num) {
-        return new IntNum(v % num);
+        return valueOf(v % num);
     }
 
     public Num remFrom(long num) {
-        return new IntNum(num % v);
+        return valueOf(num % v);
     }
 
     public Num remFrom(BigInteger num) {
@@ -158,7 +229,7 @@ public final class IntNum extends Num {
             return new BigNum(BigInteger.valueOf(v).subtract(
                                 BigInteger.valueOf(num)));
         }
-        return new IntNum(v - num);
+        return valueOf(v - num);
     }
 
     public Num subFrom(long num) {
@@ -167,7 +238,7 @@ public final class IntNum extends Num {
             return new BigNum(BigInteger.valueOf(num).subtract(
                                 BigInteger.valueOf(v)));
         }
-        return new IntNum(num - v);
+        return valueOf(num - v);
     }
 
     public Num subFrom(RatNum num) {
@@ -179,11 +250,11 @@ public final class IntNum extends Num {
     }
 
     public Num and(Num num) {
-        return new IntNum(num.longValue() & v);
+        return valueOf(num.longValue() & v);
     }
 
     public Num and(BigInteger num) {
-        return new IntNum(num.longValue() & v);
+        return valueOf(num.longValue() & v);
     }
 
     public Num or(Num num) {
@@ -191,7 +262,7 @@ public final class IntNum extends Num {
     }
 
     public Num or(long num) {
-        return new IntNum(num | v);
+        return valueOf(num | v);
     }
 
     public Num xor(Num num) {
@@ -199,7 +270,7 @@ public final class IntNum extends Num {
     }
 
     public Num xor(long num) {
-        return new IntNum(num ^ v);
+        return valueOf(num ^ v);
     }
 
     public byte byteValue() {
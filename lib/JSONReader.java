@@ -0,0 +1,329 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti core library.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.text.ParseException;
+import yeti.lang.Core;
+import yeti.lang.Hash;
+import yeti.lang.MList;
+
+/**
+ * Incremental JSON parser reading from a Reader in chunks.
+ * Produces the same values as JSONParser, but doesn't need the whole
+ * document in memory, when used for reading sequence of top-level
+ * values or top-level array elements one by one.
+ */
+final class JSONReader {
+    private final Reader in;
+    private final char[] buf = new char[8192];
+    private final boolean array;
+    private int pos;
+    private int end;
+    private long offset; // characters before buf
+    private int state;   // 0 - start, 1 - value next, 2 - after value, 3 - end
+
+    // stack of unfinished arrays and objects
+    private static final class Frame {
+        final Frame prev;
+        final MList array;
+        final Hash obj;
+        Object key;
+
+        Frame(Frame prev, MList array, Hash obj) {
+            this.prev = prev;
+            this.array = array;
+            this.obj = obj;
+        }
+    }
+
+    /**
+     * Creates parser for sequence of top-level values (like newline
+     * delimited JSON), or for elements of top-level array.
+     */
+    JSONReader(Reader in, boolean array) {
+        this.in = in;
+        this.array = array;
+    }
+
+    /** Reads single JSON value from the reader and closes it. */
+    static Object read(Reader in) throws IOException, ParseException {
+        try {
+            JSONReader r = new JSONReader(in, false);
+            int c = r.skip();
+            if (c < 0)
+                throw r.error();
+            Object v = r.value(c);
+            if (r.skip() >= 0)
+                throw r.error();
+            return v;
+        } finally {
+            in.close();
+        }
+    }
+
+    private boolean fill() throws IOException {
+        offset += end;
+        pos = end = 0;
+        int n = in.read(buf, 0, buf.length);
+        if (n <= 0)
+            return false;
+        end = n;
+        return true;
+    }
+
+    private int read() throws IOException {
+        return pos < end || fill() ? buf[pos++] : -1;
+    }
+
+    // returns next non-whitespace character or -1 on end of input
+    private int skip() throws IOException {
+        for (;;) {
+            for (; pos < end; ++pos)
+                if (buf[pos] > ' ')
+                    return buf[pos++];
+            if (!fill())
+                return -1;
+        }
+    }
+
+    private ParseException error() {
+        long at = offset + pos;
+        return new ParseException("Parse error at " + at,
+                                  at > Integer.MAX_VALUE ? -1 : (int) at);
+    }
+
+    private void end() throws IOException {
+        state = 3;
+        in.close();
+    }
+
+    /** Returns true, if there is next value available for next(). */
+    boolean hasNext() throws IOException, ParseException {
+        int c;
+        switch (state) {
+        case 0:
+            if (array) {
+                if (skip() != '[')
+                    throw error();
+                if ((c = skip()) == ']') {
+                    end();
+                    return false;
+                }
+                if (c < 0)
+                    throw error();
+                --pos;
+                state = 1;
+                return true;
+            }
+        case 2:
+            c = skip();
+            if (array) {
+                if (c == ',') {
+                    state = 1;
+                    return true;
+                }
+                if (c != ']')
+                    throw error();
+            } else if (c >= 0) {
+                --pos;
+                state = 1;
+                return true;
+            }
+            end();
+        case 3:
+            return false;
+        }
+        return true;
+    }
+
+    /** Reads next top-level value or array element. */
+    Object next() throws IOException, ParseException {
+        if (state != 1 && !hasNext())
+            throw error();
+        int c = skip();
+        if (c < 0)
+            throw error();
+        Object v = value(c);
+        state = 2;
+        return v;
+    }
+
+    // parses value starting with already read character c
+    private Object value(int c) throws IOException, ParseException {
+        Frame stack = null;
+        for (;;) {
+            Object v;
+            switch (c) {
+            case '[':
+                if ((c = skip()) == ']') {
+                    v = new MList();
+                    break;
+                }
+                stack = new Frame(stack, new MList(), null);
+                continue;
+            case '{':
+                if ((c = skip()) == '}') {
+                    v = new JSONObj(new Hash());
+                    break;
+                }
+                stack = new Frame(stack, null, new Hash());
+                stack.key = key(c);
+                c = skip();
+                continue;
+            case '"':
+                v = string();
+                break;
+            default:
+                v = literal(c);
+            }
+            // add the value to enclosing arrays and objects
+            for (;;) {
+                if (stack == null)
+                    return v;
+                c = skip();
+                if (stack.array != null) {
+                    stack.array.add(v);
+                    if (c == ',') {
+                        c = skip();
+                        break;
+                    }
+                    if (c != ']')
+                        throw error();
+                    v = stack.array;
+                } else {
+                    stack.obj.put(stack.key, v);
+                    if (c == ',') {
+                        stack.key = key(skip());
+                        c = skip();
+                        break;
+                    }
+                    if (c != '}')
+                        throw error();
+                    v = new JSONObj(stack.obj);
+                }
+                stack = stack.prev;
+            }
+        }
+    }
+
+    // object field name and following colon
+    private String key(int c) throws IOException, ParseException {
+        if (c != '"')
+            throw error();
+        String key = string();
+        if (skip() != ':')
+            throw error();
+        return key;
+    }
+
+    private String string() throws IOException, ParseException {
+        StringBuilder sb = null;
+        for (;;) {
+            int ss = pos;
+            while (pos < end && buf[pos] != '"' && buf[pos] != '\\')
+                ++pos;
+            if (pos < end && buf[pos] == '"' && sb == null)
+                return new String(buf, ss, pos++ - ss);
+            if (sb == null)
+                sb = new StringBuilder();
+            sb.append(buf, ss, pos - ss);
+            if (pos >= end) {
+                if (!fill())
+                    throw error();
+                continue;
+            }
+            if (buf[pos++] == '"')
+                return sb.toString();
+            int c = read();
+            switch (c) {
+            case '/': case '\\': case '"':
+                sb.append((char) c);
+                break;
+            case 'b':
+                sb.append('\b');
+                break;
+            case 'f':
+                sb.append('\f');
+                break;
+            case 'n':
+                sb.append('\n');
+                break;
+            case 'r':
+                sb.append('\r');
+                break;
+            case 't':
+                sb.append('\t');
+                break;
+            case 'u':
+                int u = 0;
+                for (int i = 0; i < 4; ++i) {
+                    int d = Character.digit(read(), 16);
+                    if (d < 0)
+                        throw error();
+                    u = u << 4 | d;
+                }
+                sb.append((char) u);
+                break;
+            default:
+                throw error();
+            }
+        }
+    }
+
+    private Object literal(int c) throws IOException, ParseException {
+        StringBuilder sb = new StringBuilder();
+        for (;;) {
+            if (!(c >= '0' && c <= '9' || c >= 'A' && c <= 'Z'
+                    || c >= 'a' && c <= 'z' || c == '.'
+                    || c == '+' || c == '-')) {
+                if (c >= 0)
+                    --pos;
+                break;
+            }
+            sb.append((char) c);
+            c = read();
+        }
+        String s = sb.toString();
+        if (s.equals("null"))
+            return null;
+        if (s.equals("false"))
+            return Boolean.FALSE;
+        if (s.equals("true"))
+            return Boolean.TRUE;
+        try {
+            return Core.parseNum(s);
+        } catch (Exception ex) {
+            throw error();
+        }
+    }
+}
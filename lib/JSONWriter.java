@@ -0,0 +1,198 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti core library.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Map;
+import yeti.lang.AIter;
+import yeti.lang.AList;
+import yeti.lang.FloatNum;
+
+/**
+ * JSON serializer writing JSONObj, Hash, lists, numbers, strings and
+ * booleans directly into a character buffer, which is either flushed
+ * into Writer or grown for string result. Strings are copied in runs
+ * between the characters needing escaping.
+ */
+public final class JSONWriter {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private final Writer out;
+    private char[] buf;
+    private int len;
+
+    private JSONWriter(Writer out, int size) {
+        this.out = out;
+        buf = new char[size];
+    }
+
+    /** Writes the JSON value into the writer (without flushing it). */
+    public static void write(Writer out, Object value) throws IOException {
+        JSONWriter w = new JSONWriter(out, 8192);
+        w.value(value);
+        out.write(w.buf, 0, w.len);
+    }
+
+    /** Formats the JSON value as string. */
+    public static String toString(Object value) {
+        JSONWriter w = new JSONWriter(null, 256);
+        try {
+            w.value(value);
+        } catch (IOException ex) { // no writer, can't happen
+            throw new RuntimeException(ex);
+        }
+        return new String(w.buf, 0, w.len);
+    }
+
+    // ensures space for n more characters
+    private void reserve(int n) throws IOException {
+        if (len + n <= buf.length)
+            return;
+        if (out != null && n <= buf.length) {
+            out.write(buf, 0, len);
+            len = 0;
+            return;
+        }
+        int size = buf.length * 2;
+        char[] tmp = new char[size < len + n ? len + n : size];
+        System.arraycopy(buf, 0, tmp, 0, len);
+        buf = tmp;
+    }
+
+    private void append(char c) throws IOException {
+        if (len >= buf.length)
+            reserve(1);
+        buf[len++] = c;
+    }
+
+    private void append(String s) throws IOException {
+        append(s, 0, s.length());
+    }
+
+    // copies characters from the string range into output
+    private void append(String s, int from, int to) throws IOException {
+        int n = to - from;
+        if (out != null && n > buf.length) {
+            out.write(buf, 0, len);
+            out.write(s, from, n);
+            len = 0;
+            return;
+        }
+        reserve(n);
+        s.getChars(from, to, buf, len);
+        len += n;
+    }
+
+    private void string(String s) throws IOException {
+        int n = s.length(), from = 0;
+        append('"');
+        for (int i = 0; i < n; ++i) {
+            char c = s.charAt(i);
+            if (c >= ' ' && c != '"' && c != '\\')
+                continue;
+            if (i > from)
+                append(s, from, i);
+            from = i + 1;
+            reserve(6);
+            buf[len++] = '\\';
+            switch (c) {
+            case '"': case '\\':
+                buf[len++] = c;
+                break;
+            case '\n':
+                buf[len++] = 'n';
+                break;
+            case '\r':
+                buf[len++] = 'r';
+                break;
+            case '\t':
+                buf[len++] = 't';
+                break;
+            default:
+                buf[len++] = 'u';
+                buf[len++] = '0';
+                buf[len++] = '0';
+                buf[len++] = HEX[c >> 4];
+                buf[len++] = HEX[c & 15];
+            }
+        }
+        append(s, from, n);
+        append('"');
+    }
+
+    private void object(Map map) throws IOException {
+        append('{');
+        boolean first = true;
+        for (Iterator i = map.entrySet().iterator(); i.hasNext(); ) {
+            Map.Entry e = (Map.Entry) i.next();
+            if (!first)
+                append(',');
+            first = false;
+            string(String.valueOf(e.getKey()));
+            append(':');
+            value(e.getValue());
+        }
+        append('}');
+    }
+
+    private void value(Object v) throws IOException {
+        if (v == null) {
+            append("null");
+        } else if (v instanceof String) {
+            string((String) v);
+        } else if (v instanceof JSONObj) {
+            object(((JSONObj) v).map);
+        } else if (v instanceof AList) {
+            append('[');
+            AList l = (AList) v;
+            if (!l.isEmpty()) {
+                AIter i = l;
+                value(i.first());
+                while ((i = i.next()) != null) {
+                    append(',');
+                    value(i.first());
+                }
+            }
+            append(']');
+        } else if (v instanceof FloatNum) {
+            double d = ((FloatNum) v).doubleValue();
+            append(Double.isNaN(d) || Double.isInfinite(d)
+                    ? "null" : v.toString());
+        } else if (v instanceof Number || v instanceof Boolean) {
+            append(v.toString());
+        } else if (v instanceof Map) {
+            object((Map) v);
+        } else {
+            string(v.toString());
+        }
+    }
+}
@@ -123,7 +123,7 @@ public class LList extends AList implements Serializable {
         if (v == null) {
             for (AIter i = this; i != null; i = i.next()) {
                 if (i.first() == null) {
-                    return new IntNum(n);
+                    return IntNum.valueOf(n);
                 }
                 ++n;
             }
@@ -131,7 +131,7 @@ public class LList extends AList implements Serializable {
         }
         for (AIter i = this; i != null; i = i.next()) {
             if (v.equals(i.first())) {
-                return new IntNum(n);
+                return IntNum.valueOf(n);
             }
             ++n;
         }
@@ -31,20 +31,17 @@
 package yeti.lang;
 
 /** Yeti core library - Lazy list. */
-public final class LazyList extends LList {
+public final class LazyList extends LazyNode {
     private Fun promise;
-    private AList rest;
 
     public LazyList(Object first, Fun rest) {
-        super(first, null);
+        super(first);
         promise = rest;
     }
 
-    public synchronized AList rest() {
-        if (promise != null) {
-            rest = (AList) promise.apply(null);
-            promise = null;
-        }
+    AList force() {
+        AList rest = (AList) promise.apply(null);
+        promise = null;
         return rest;
     }
 
@@ -0,0 +1,159 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti core library.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Yeti core library - Lazy list node with rest forced once.
+ * The forcing thread claims the node by CAS on the state field and
+ * publishes the rest with volatile write, so walking the list takes
+ * no monitor locks. Other threads wanting the rest meanwhile will
+ * first spin yielding for a while, and then block on the node monitor
+ * until the rest is available. The monitor is notified only after some
+ * thread has blocked, so the uncontended path stays lock-free.
+ */
+abstract class LazyNode extends LList {
+    private static final AtomicReferenceFieldUpdater STATE =
+        AtomicReferenceFieldUpdater.newUpdater(LazyNode.class,
+                                               Object.class, "state");
+    private static final Object DONE = new Object();
+    private static final int SPINS = 64;
+
+    // null - not forced, Thread - held by it, DONE - rest is known
+    private transient volatile Object state;
+    // set by threads blocking on the monitor, until notified
+    private transient volatile boolean waiting;
+    private AList rest;
+
+    LazyNode(Object first) {
+        super(first, null);
+    }
+
+    /**
+     * Computes the rest of the list. Called once on success,
+     * so the implementation should drop the references it no longer
+     * needs before returning. On exception the node stays unforced.
+     */
+    abstract AList force();
+
+    /**
+     * Holds the node unforced, until release is called.
+     * Returns false without holding, if the rest is already known.
+     */
+    final boolean hold() {
+        Object s;
+        Thread self = null;
+        int spins = SPINS;
+        while ((s = state) != DONE) {
+            if (s == null) {
+                if (self == null)
+                    self = Thread.currentThread();
+                if (STATE.compareAndSet(this, null, self))
+                    return true;
+            } else if (s == (self == null ? Thread.currentThread() : self)) {
+                throw new IllegalStateException(
+                            "Lazy list depends on its own rest");
+            } else if (--spins >= 0) {
+                Thread.yield();
+            } else {
+                await(s);
+                spins = SPINS;
+            }
+        }
+        return false;
+    }
+
+    private void await(Object holder) {
+        boolean interrupted = false;
+        synchronized (this) {
+            // unlock reads waiting after writing state, so either it
+            // sees the flag and notifies, or the state check here
+            // sees the new state. Notify clears the flag, therefore
+            // it is set again before each wait.
+            for (;;) {
+                waiting = true;
+                if (state != holder)
+                    break;
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private void unlock(Object s) {
+        state = s;
+        if (waiting) {
+            synchronized (this) {
+                waiting = false;
+                notifyAll();
+            }
+        }
+    }
+
+    final void release() {
+        unlock(null);
+    }
+
+    public final AList rest() {
+        if (state == DONE || !hold())
+            return rest;
+        boolean done = false;
+        try {
+            rest = force();
+            done = true;
+        } finally {
+            unlock(done ? DONE : null);
+        }
+        return rest;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        boolean done = state == DONE;
+        out.defaultWriteObject();
+        out.writeBoolean(done);
+    }
+
+    private void readObject(ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (in.readBoolean())
+            state = DONE;
+    }
+}
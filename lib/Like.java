@@ -59,7 +59,7 @@ public final class Like extends Fun {
     private Pattern p;
 
     public Like(Object pattern) {
-        p = Pattern.compile((String) pattern, Pattern.DOTALL);
+        p = PatternCache.compile((String) pattern);
     }
 
     public Object apply(Object v) {
@@ -180,13 +180,13 @@ public final class ListRange extends AList implements Serializable {
             if (first.compareTo(last) <= 0)
                 for (int i = first.intValue(), e = last.intValue();
                      i <= e; ++i)
-                    f.apply(new IntNum(i));
+                    f.apply(IntNum.valueOf(i));
         } else if (inc < 0 && first.rCompare(Integer.MAX_VALUE) > 0 &&
                    last.rCompare(Integer.MIN_VALUE) < 0) {
             if (first.compareTo(last) >= 0)
                 for (int i = first.intValue(), e = last.intValue();
                      i >= e; --i)
-                    f.apply(new IntNum(i));
+                    f.apply(IntNum.valueOf(i));
         } else {
             for (Num i = first; i.compareTo(last) * inc <= 0; i = i.add(inc))
                 f.apply(i);
@@ -201,13 +201,13 @@ public final class ListRange extends AList implements Serializable {
             if (first.compareTo(last) <= 0)
                 for (int i = first.intValue(), e = last.intValue();
                      i <= e; ++i)
-                    v = f.apply(v, new IntNum(i));
+                    v = f.apply(v, IntNum.valueOf(i));
         } else if (inc < 0 && first.rCompare(Integer.MAX_VALUE) > 0 &&
                    last.rCompare(Integer.MIN_VALUE) < 0) {
             if (first.compareTo(last) >= 0)
                 for (int i = first.intValue(), e = last.intValue();
                      i >= e; --i)
-                    v = f.apply(v, new IntNum(i));
+                    v = f.apply(v, IntNum.valueOf(i));
         } else {
             for (Num i = first; i.compareTo(last) * inc <= 0; i = i.add(inc))
                 v = f.apply(v, i);
@@ -231,7 +231,7 @@ public final class ListRange extends AList implements Serializable {
             if (first.compareTo(last) <= 0)
                 for (int i = first.intValue(), e = last.intValue();
                      i <= e; ++i) {
-                    j = new IntNum(i);
+                    j = IntNum.valueOf(i);
                     if (pred.apply(j) == Boolean.TRUE)
                         return new ListRange(j, last, rest);
                 }
@@ -255,7 +255,7 @@ public final class ListRange extends AList implements Serializable {
             l = new MList();
             l.reserve(e - i + 1);
             while (i <= e)
-                l.add(f.apply(new IntNum(i++)));
+                l.add(f.apply(IntNum.valueOf(i++)));
         } else if (inc < 0 && first.rCompare(Integer.MAX_VALUE) > 0 &&
                    last.rCompare(Integer.MIN_VALUE) < 0) {
             int i = first.intValue(), e = last.intValue();
@@ -264,7 +264,7 @@ public final class ListRange extends AList implements Serializable {
             l = new MList();
             l.reserve(i - e + 1);
             while (i >= e)
-                l.add(f.apply(new IntNum(i--)));
+                l.add(f.apply(IntNum.valueOf(i--)));
         } else {
             return new MapList(this, f);
         }
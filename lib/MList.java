@@ -41,6 +41,11 @@ abstract class AMList extends AList implements Serializable {
     abstract int _size();
     abstract Object[] array();
 
+    // NumList storage, which array() would box
+    boolean unboxed() {
+        return false;
+    }
+
     // used by length
     public long length() {
         int l = _size() - start;
@@ -69,6 +74,8 @@ abstract class AMList extends AList implements Serializable {
             return _size() <= start;
         if (obj instanceof AMList) {
             AMList o = (AMList) obj;
+            if (o.unboxed())
+                return o.equals(this);
             int cnt = _size();
             if (cnt - start != o._size() - o.start)
                 return false;
@@ -128,12 +135,12 @@ abstract class AMList extends AList implements Serializable {
         if (v == null) {
             for (int i = start; i < cnt; ++i)
                 if (array[i] == null)
-                    return new IntNum(i - start);
+                    return IntNum.valueOf(i - start);
             return null;
         }
         for (int i = start; i < cnt; ++i)
             if (v.equals(array[i]))
-                return new IntNum(i - start);
+                return IntNum.valueOf(i - start);
         return null;
     }
 
@@ -169,6 +176,8 @@ abstract class AMList extends AList implements Serializable {
             return j != null ? -1 : i < cnt ? 1 : 0;
         }
         AMList o = (AMList) obj;
+        if (o.unboxed())
+            return -o.compareTo(this);
         Object[] array_ = o.array();
         int cnt_ = o._size();
         for (int j = o.start; i < cnt && j < cnt_; ++i, ++j) {
@@ -218,8 +227,8 @@ abstract class AMList extends AList implements Serializable {
 /** Yeti core library - List. */
 public class MList extends AMList implements ByKey {
     private static final Object[] EMPTY = {}; 
-    private Object[] array;
-    private int size;
+    Object[] array;
+    int size;
 
     private class SubList extends AMList {
         Object first;
@@ -309,10 +318,13 @@ public class MList extends AMList implements ByKey {
 
         AIter write(OutputStream out) throws IOException {
             if (i < size) {
-                byte[] tmp = new byte[size - i];
-                for (int off = i, j = 0; j < tmp.length; ++j)
-                    tmp[j] = ((Number) array[j + off]).byteValue();
-                out.write(tmp);
+                byte[] tmp = new byte[Math.min(size - i, 65536)];
+                for (int off = i, n; off < size; off += n) {
+                    n = Math.min(size - off, tmp.length);
+                    for (int j = 0; j < n; ++j)
+                        tmp[j] = ((Number) array[j + off]).byteValue();
+                    out.write(tmp, 0, n);
+                }
             }
             return null;
         }
@@ -438,12 +450,14 @@ public class MList extends AMList implements ByKey {
             throw new NoSuchKeyException(i, size - start);
         if ((i += start) >= size)
             throw new NoSuchKeyException(i - start, size - start);
-        if ((n = --size - i) > 0)
-            System.arraycopy(array, i + 1, array, i, n);
+        if ((n = --size - i) > 0) {
+            Object a = storage();
+            System.arraycopy(a, i + 1, a, i, n);
+        }
         return null;
     }
 
-    private void removeRange(ListRange range) {
+    void removeRange(ListRange range) {
         int from = range.first.intValue(),
             to = range.last.intValue();
         if (range.inc < 0) {
@@ -457,9 +471,10 @@ public class MList extends AMList implements ByKey {
                 throw new NoSuchKeyException(from, n);
             if (to < 0 || to >= n)
                 throw new NoSuchKeyException(to, n);
-            if (++to < n)
-                System.arraycopy(array, to + start,
-                                 array, from + start, n - to);
+            if (++to < n) {
+                Object a = storage();
+                System.arraycopy(a, to + start, a, from + start, n - to);
+            }
             size -= to - from;
         }
     }
@@ -550,7 +565,12 @@ public class MList extends AMList implements ByKey {
         return size;
     }
 
-    final Object[] array() {
+    Object[] array() {
+        return array;
+    }
+
+    // backing array for moving elements, overridden by NumList
+    Object storage() {
         return array;
     }
 
@@ -560,7 +580,7 @@ public class MList extends AMList implements ByKey {
     }
 
     // java sort don't know wtf the Fun is
-    private static void sort(Object[] a, Object[] tmp,
+    static void sort(Object[] a, Object[] tmp,
                              int from, int to, Fun isLess) {
         int split = (from + to) / 2;
         if (split - from > 1)
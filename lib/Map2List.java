@@ -31,29 +31,25 @@
 package yeti.lang;
 
 /** Yeti core library - Map 2 lists. */
-final class Map2List extends LList {
-    private AList rest;
+final class Map2List extends LazyNode {
     private AIter src;
     private AIter src2;
     private Fun f;
 
     public Map2List(Fun f, AIter src, AIter src2) {
-        super(f.apply(src.first(), src2.first()), null);
+        super(f.apply(src.first(), src2.first()));
         this.src = src;
         this.src2 = src2;
         this.f = f;
     }
 
-    public synchronized AList rest() {
-        if (f != null) {
-            AIter i = src.next();
-            AIter j = src2.next();
-            if (i != null && j != null)
-                rest = new Map2List(f, i, j);
-            src = null;
-            src2 = null;
-            f = null;
-        }
+    AList force() {
+        AIter i = src.next();
+        AIter j = src2.next();
+        AList rest = i != null && j != null ? new Map2List(f, i, j) : null;
+        src = null;
+        src2 = null;
+        f = null;
         return rest;
     }
 }
@@ -31,24 +31,20 @@
 package yeti.lang;
 
 /** Yeti core library - Map list. */
-final class MapList extends LList {
-    private AList rest;
+final class MapList extends LazyNode {
     private AIter src;
     private final Fun f;
 
     public MapList(AIter src, Fun f) {
-        super(f.apply(src.first()), null);
+        super(f.apply(src.first()));
         this.src = src;
         this.f = f;
     }
 
-    public synchronized AList rest() {
-        if (src != null) {
-            AIter i = src.next();
-            if (i != null)
-                rest = new MapList(i, f);
-            src = null;
-        }
+    AList force() {
+        AIter i = src.next();
+        AList rest = i == null ? null : new MapList(i, f);
+        src = null;
         return rest;
     }
 }
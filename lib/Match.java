@@ -37,7 +37,7 @@ public final class Match extends Fun {
     private final boolean yes;
 
     public Match(Object pattern, boolean yes) {
-        p = Pattern.compile((String) pattern, Pattern.DOTALL);
+        p = PatternCache.compile((String) pattern);
         this.yes = yes;
     }
 
@@ -60,6 +60,28 @@ final class MatchAllFun extends Fun {
         }
     }
 
+    // match from RegexScanner, which is used for reading from Reader
+    final class ScanMatch extends LList {
+        private final RegexScanner s;
+        private AList rest;
+        private boolean forced;
+
+        ScanMatch(Object v, RegexScanner s) {
+            super(v, null);
+            this.s = s;
+        }
+
+        public AList rest() {
+            synchronized (s) {
+                if (!forced) {
+                    rest = get(s);
+                    forced = true;
+                }
+                return rest;
+            }
+        }
+    }
+
     MatchAllFun(Pattern pattern_, Fun matchFun_, Fun skipFun_) {
         pattern = pattern_;
         matchFun = matchFun_;
@@ -85,6 +107,26 @@ final class MatchAllFun extends Fun {
         return last < st ? new LList(skip, l) : l;
     }
 
+    AList get(RegexScanner s) {
+        String text;
+        if (!s.find()) {
+            return (text = s.remaining()).length() == 0
+                    ? null : new LList(skipFun.apply(text), null);
+        }
+        Matcher m = s.matcher();
+        Object skip = (text = s.cut()).length() == 0 ? null :
+            skipFun.apply(text);
+        Object[] r = new Object[m.groupCount() + 1];
+        for (int i = r.length; --i >= 0;) {
+            String g;
+            if ((g = m.group(i)) == null)
+                g = Core.UNDEF_STR;
+            r[i] = g;
+        }
+        ScanMatch l = new ScanMatch(matchFun.apply(new MList(r)), s);
+        return text.length() != 0 ? new LList(skip, l) : l;
+    }
+
     public Object apply(Object str) {
         String s = (String) str;
         return get(s, pattern.matcher(s), 0);
@@ -95,10 +137,18 @@ final public class MatchAll extends Fun2 {
     private final Pattern p;
 
     public MatchAll(Object pattern) {
-        p = Pattern.compile((String) pattern, Pattern.DOTALL);
+        p = PatternCache.compile((String) pattern);
     }
 
     public Object apply(Object matchFun, Object skipFun) {
         return new MatchAllFun(p, (Fun) matchFun, (Fun) skipFun);
     }
+
+    static AList read(RegexScanner s, Object matchFun, Object skipFun) {
+        MatchAllFun f = new MatchAllFun(s.matcher().pattern(),
+                                        (Fun) matchFun, (Fun) skipFun);
+        synchronized (s) {
+            return f.get(s);
+        }
+    }
 }
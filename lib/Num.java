@@ -92,11 +92,11 @@ public abstract class Num extends Number implements Comparable {
 
     public Num shl(int by) {
         if (by < 0) {
-            return new IntNum(longValue() >>> -by);
+            return IntNum.valueOf(longValue() >>> -by);
         }
         long l, v;
         if (by < 32 && (v = longValue()) < (l = SHL_LIMIT[by]) && v > -l) {
-            return new IntNum(v << by);
+            return IntNum.valueOf(v << by);
         }
         return new BigNum(toBigInteger().shiftLeft(by));
     }
@@ -0,0 +1,727 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti core library.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/**
+ * Yeti core library - array of numbers with unboxed storage.
+ * The primitive storage is replaced with ordinary boxed MList storage,
+ * when a value it can't represent is stored into the array.
+ */
+abstract class NumList extends MList {
+    // primitive array, or null after falling back to the boxed storage
+    Object data;
+
+    /*
+     * Tail or take view. Reads go through the list, so the view still
+     * sees the elements after the storage has been boxed by store.
+     */
+    private final class View extends AMList {
+        private final int end; // -1 follows the list size
+
+        private View(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private int end() {
+            return end < 0 ? size : end;
+        }
+
+        // like MList tail, gives the stale value when the array has shrunk
+        public Object first() {
+            return at(start);
+        }
+
+        public AList rest() {
+            int p;
+            return (p = start + 1) < end() ? new View(p, end) : null;
+        }
+
+        public AIter next() {
+            int p;
+            return (p = start + 1) < end() ? new Iter(p, end) : null;
+        }
+
+        public boolean isEmpty() {
+            return start >= end();
+        }
+
+        int _size() {
+            return end();
+        }
+
+        Object[] array() {
+            return NumList.this.array();
+        }
+
+        public void forEach(Object f) {
+            each((Fun) f, start, end());
+        }
+
+        public Object fold(Fun f, Object v) {
+            return NumList.this.fold(f, v, start, end());
+        }
+
+        public Num index(Object v) {
+            int i = indexOf(v, start, end());
+            return i < 0 ? null : IntNum.valueOf(i - start);
+        }
+
+        public AList map(Fun f) {
+            return NumList.this.map(f, start, end());
+        }
+
+        public AList take(int from, int count) {
+            return view(this, start, end, from, count);
+        }
+
+        public AList find(Fun pred) {
+            return NumList.this.find(pred, start, end());
+        }
+
+        public int hashCode() {
+            return hash(start, end());
+        }
+
+        public boolean equals(Object obj) {
+            return eq(start, end(), obj);
+        }
+
+        public int compareTo(Object obj) {
+            return cmp(start, end(), obj);
+        }
+
+        public String toString() {
+            return show(start, end());
+        }
+
+        boolean unboxed() {
+            return true;
+        }
+    }
+
+    private final class Iter extends AIter implements Serializable {
+        private int i;
+        private final int end; // -1 follows the list size
+
+        private Iter(int start, int end) {
+            i = start;
+            this.end = end;
+        }
+
+        public Object first() {
+            if (i >= (end < 0 ? size : end)) {
+                throw new IllegalStateException(
+                    "End of list reached or list has shrunken.");
+            }
+            return at(i);
+        }
+
+        public AIter next() {
+            return ++i < (end < 0 ? size : end) ? this : null;
+        }
+
+        public boolean isEmpty() {
+            return i >= (end < 0 ? size : end);
+        }
+
+        public AIter dup() {
+            return new Iter(i, end);
+        }
+
+        AIter write(OutputStream out) throws IOException {
+            int e = end < 0 ? size : end;
+            if (i < e) {
+                byte[] tmp = new byte[Math.min(e - i, 65536)];
+                for (int off = i, n; off < e; off += n) {
+                    n = Math.min(e - off, tmp.length);
+                    if (data instanceof long[]) {
+                        long[] a = (long[]) data;
+                        for (int j = 0; j < n; ++j)
+                            tmp[j] = (byte) a[j + off];
+                    } else {
+                        for (int j = 0; j < n; ++j)
+                            tmp[j] = ((Number) at(j + off)).byteValue();
+                    }
+                    out.write(tmp, 0, n);
+                }
+            }
+            return null;
+        }
+    }
+
+    NumList(Object data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    /** Boxed value of data[i]. */
+    abstract Object box(int i);
+
+    /** Stores v into data[i], returns false when v can't be stored. */
+    abstract boolean set(int i, Object v);
+
+    abstract Object alloc(int n);
+
+    /** New list of the same kind using the given storage. */
+    abstract NumList make(Object data, int size);
+
+    /** Sorts first n elements of given storage. */
+    abstract void sortData(Object data, int n);
+
+    /** Sum of data[from], data[from + 1], ... without boxing. */
+    abstract Num sum(int from);
+
+    /**
+     * Creates new array from the list elements. Numbers are stored
+     * unboxed, when the first element is IntNum or FloatNum.
+     */
+    static MList copyOf(AList l) {
+        if (l == null || l.isEmpty())
+            return new MList();
+        if (l instanceof NumList && ((NumList) l).data != null)
+            return (MList) l.copy();
+        if (l instanceof ListRange) {
+            ListRange r = (ListRange) l;
+            if (r.rest == null && r.first instanceof IntNum &&
+                    r.last instanceof IntNum) {
+                long v = r.first.longValue(),
+                     n = (r.last.longValue() - v) / r.inc + 1;
+                if (n > 0 && n < 0x7ffffff0L) {
+                    long[] a = new long[(int) n];
+                    for (int i = 0; i < a.length; ++i, v += r.inc)
+                        a[i] = v;
+                    return new LongList(a, a.length);
+                }
+            }
+        }
+        Object first = l.first();
+        NumList res;
+        if (first instanceof IntNum)
+            res = new LongList(new long[10], 0);
+        else if (first instanceof FloatNum)
+            res = new DoubleList(new double[10], 0);
+        else
+            return new MList(l);
+        for (AIter i = l; i != null; i = i.next())
+            res.add(i.first());
+        return res;
+    }
+
+    final Object at(int i) {
+        return data != null ? box(i) : array[i];
+    }
+
+    final void store(int i, Object v) {
+        if (data != null) {
+            if (set(i, v))
+                return;
+            boxAll();
+        }
+        array[i] = v;
+    }
+
+    /*
+     * Falls back to MList storage, keeping the element indexes.
+     * Stale elements past the size are boxed too, as views may be
+     * still referring to those after the array has shrunk.
+     */
+    private void boxAll() {
+        Object[] a = new Object[Array.getLength(data)];
+        for (int i = 0; i < a.length; ++i)
+            a[i] = box(i);
+        array = a;
+        data = null;
+    }
+
+    // take of elements from start to end (-1 follows the list size)
+    final AList view(AList self, int start, int end, int from, int count) {
+        int e = end < 0 ? size : end;
+        if (from < 0)
+            from = 0;
+        from += start;
+        if (count < 0)
+            return from >= e ? null : from == start ? self : new View(from, end);
+        if ((count += from) > e)
+            count = e;
+        return from < count ? new View(from, count) : null;
+    }
+
+    Object storage() {
+        return data != null ? data : array;
+    }
+
+    Object[] array() {
+        if (data == null)
+            return array;
+        Object[] a = new Object[size];
+        for (int i = start; i < size; ++i)
+            a[i] = box(i);
+        return a;
+    }
+
+    public void reserve(int n) {
+        if (data == null) {
+            super.reserve(n);
+        } else if (n > Array.getLength(data)) {
+            Object tmp = alloc(n);
+            System.arraycopy(data, 0, tmp, 0, size);
+            data = tmp;
+        }
+    }
+
+    public void add(Object o) {
+        if (data == null) {
+            super.add(o);
+            return;
+        }
+        int n;
+        if (size >= (n = Array.getLength(data)))
+            reserve(n == 0 ? 10 : n * 3 / 2 + 1);
+        store(size++, o);
+    }
+
+    public Object shift() {
+        if (start >= size)
+            throw new EmptyArrayException("No first element in empty array");
+        return at(start++);
+    }
+
+    public Object pop() {
+        if (start >= size)
+            throw new EmptyArrayException("Cannot pop from an empty array");
+        return at(--size);
+    }
+
+    public Object first() {
+        if (start >= size)
+            throw new EmptyArrayException("No first element in empty array");
+        return at(start);
+    }
+
+    public AList rest() {
+        int p;
+        return (p = start + 1) < size ? new View(p, -1) : null;
+    }
+
+    public AIter next() {
+        int p;
+        return (p = start + 1) < size ? new Iter(p, -1) : null;
+    }
+
+    public Object vget(Object index) {
+        int i;
+        if ((i = ((Number) index).intValue()) < 0)
+            throw new NoSuchKeyException(i, size - start);
+        if ((i += start) >= size)
+            throw new NoSuchKeyException(i - start, size - start);
+        return at(i);
+    }
+
+    public Object get(int index) {
+        int i;
+        if (index < 0 || (i = index + start) >= size)
+            throw new NoSuchKeyException(index, size - start);
+        return at(i);
+    }
+
+    public Object put(Object index, Object value) {
+        int i;
+        if ((i = ((Number) index).intValue()) < 0)
+            throw new NoSuchKeyException(i, size - start);
+        if ((i += start) >= size)
+            throw new NoSuchKeyException(i - start, size - start);
+        store(i, value);
+        return null;
+    }
+
+    public MList copy(int from, int to) {
+        if (data == null)
+            return super.copy(from, to);
+        int n = size - start;
+        if (from < 0 || from > n)
+            throw new NoSuchKeyException(from, n);
+        if (to > n)
+            throw new NoSuchKeyException("Copy range " + from + " to " + to +
+                                         " exceeds array length " + n);
+        if (from >= to)
+            return new MList();
+        Object a = alloc(to - from);
+        System.arraycopy(data, start + from, a, 0, to - from);
+        return make(a, to - from);
+    }
+
+    public AList take(int from, int count) {
+        if (data == null)
+            return super.take(from, count);
+        return view(this, start, -1, from, count);
+    }
+
+    final AList find(Fun pred, int i, int end) {
+        for (; i < end; ++i)
+            if (pred.apply(at(i)) == Boolean.TRUE)
+                return new View(i, -1);
+        return null;
+    }
+
+    public AList find(Fun pred) {
+        return find(pred, start, size);
+    }
+
+    public Object[] toArray(Object[] to) {
+        for (int i = start; i < size; ++i)
+            to[i - start] = at(i);
+        return to;
+    }
+
+    final void each(Fun f, int i, int end) {
+        for (; i < end; ++i)
+            f.apply(at(i));
+    }
+
+    public void forEach(Object f) {
+        each((Fun) f, start, size);
+    }
+
+    final Object fold(Fun f, Object v, int i, int end) {
+        for (; i < end; ++i)
+            v = f.apply(v, at(i));
+        return v;
+    }
+
+    public Object fold(Fun f, Object v) {
+        return fold(f, v, start, size);
+    }
+
+    int indexOf(Object v, int i, int end) {
+        if (v == null) {
+            for (; i < end; ++i)
+                if (at(i) == null)
+                    return i;
+        } else {
+            for (; i < end; ++i)
+                if (v.equals(at(i)))
+                    return i;
+        }
+        return -1;
+    }
+
+    public Num index(Object v) {
+        int i = indexOf(v, start, size);
+        return i < 0 ? null : IntNum.valueOf(i - start);
+    }
+
+    final AList map(Fun f, int i, int end) {
+        if (i >= end)
+            return null;
+        Object[] result = new Object[end - i];
+        for (int j = 0; i < end; ++i, ++j)
+            result[j] = f.apply(at(i));
+        return new MList(result);
+    }
+
+    public AList map(Fun f) {
+        return map(f, start, size);
+    }
+
+    /** Hash code of data[i] as it would be for the boxed value. */
+    abstract int hashAt(int i);
+
+    /** Compares data[i] with v, like at(i).equals(v). */
+    boolean eqAt(int i, Object v) {
+        Object x = at(i);
+        return x == v || x != null && x.equals(v);
+    }
+
+    // AMList hashCode, equals, compareTo and toString of elements
+    // from i to end, without boxing the whole array
+    final int hash(int i, int end) {
+        int h = 1;
+        if (data == null) {
+            for (Object x; i < end; ++i)
+                h = 31 * h + ((x = array[i]) == null ? 0 : x.hashCode());
+        } else {
+            for (; i < end; ++i)
+                h = 31 * h + hashAt(i);
+        }
+        return h;
+    }
+
+    final boolean eq(int i, int end, Object obj) {
+        if (obj == null)
+            return i >= end;
+        if (!(obj instanceof AList))
+            return false;
+        AIter j = (AList) obj;
+        if (j.isEmpty())
+            return i >= end;
+        for (; i < end; ++i) {
+            if (j == null || !eqAt(i, j.first()))
+                return false;
+            j = j.next();
+        }
+        return j == null;
+    }
+
+    final int cmp(int i, int end, Object obj) {
+        AIter j = (AIter) obj;
+        if (j != null && j.isEmpty())
+            j = null;
+        for (int r; i < end && j != null; ++i) {
+            Object x = at(i);
+            if (x != null) {
+                if ((r = ((Comparable) x).compareTo(j.first())) != 0)
+                    return r;
+            } else if (j.first() != null) {
+                return -1;
+            }
+            j = j.next();
+        }
+        return j != null ? -1 : i < end ? 1 : 0;
+    }
+
+    final String show(int i, int end) {
+        StringBuilder buf = new StringBuilder("[");
+        for (int from = i; i < end; ++i) {
+            if (i > from)
+                buf.append(',');
+            buf.append(Core.show(at(i)));
+        }
+        buf.append(']');
+        return buf.toString();
+    }
+
+    public int hashCode() {
+        return hash(start, size);
+    }
+
+    public boolean equals(Object obj) {
+        return eq(start, size, obj);
+    }
+
+    public int compareTo(Object obj) {
+        return cmp(start, size, obj);
+    }
+
+    public String toString() {
+        return show(start, size);
+    }
+
+    boolean unboxed() {
+        return data != null;
+    }
+
+    public Object copy() {
+        if (data == null)
+            return super.copy();
+        int n = size - start;
+        if (n < 0)
+            n = 0;
+        Object a = alloc(n);
+        System.arraycopy(data, start, a, 0, n);
+        return make(a, n);
+    }
+
+    public AList sort() {
+        int n;
+        if (data == null || (n = size - start) <= 0)
+            return super.sort();
+        Object a = alloc(n);
+        System.arraycopy(data, start, a, 0, n);
+        sortData(a, n);
+        return make(a, n);
+    }
+
+    /** Arithmetic sum of the list elements (used by sum). */
+    static Num sum(AList l) {
+        if (l instanceof NumList && ((NumList) l).data != null) {
+            NumList nl = (NumList) l;
+            return nl.sum(nl.start);
+        }
+        Num v = IntNum._0;
+        if (l == null || l.isEmpty())
+            return v;
+        for (AIter i = l; i != null; i = i.next())
+            v = v.add((Num) i.first());
+        return v;
+    }
+}
+
+/** Yeti core library - array of integers stored in long[]. */
+final class LongList extends NumList {
+    LongList(long[] data, int size) {
+        super(data, size);
+    }
+
+    Object box(int i) {
+        return IntNum.valueOf(((long[]) data)[i]);
+    }
+
+    boolean set(int i, Object v) {
+        if (!(v instanceof IntNum))
+            return false;
+        ((long[]) data)[i] = ((IntNum) v).longValue();
+        return true;
+    }
+
+    Object alloc(int n) {
+        return new long[n];
+    }
+
+    NumList make(Object data, int size) {
+        return new LongList((long[]) data, size);
+    }
+
+    void sortData(Object data, int n) {
+        Arrays.sort((long[]) data, 0, n);
+    }
+
+    Num sum(int i) {
+        long[] a = (long[]) data;
+        long s = 0, x, r;
+        for (int cnt = size; i < cnt; ++i) {
+            // on overflow continue with Num arithmetic
+            if ((((r = s + (x = a[i])) ^ s) & (r ^ x)) < 0) {
+                Num v = IntNum.valueOf(s);
+                for (; i < cnt; ++i)
+                    v = v.add(a[i]);
+                return v;
+            }
+            s = r;
+        }
+        return IntNum.valueOf(s);
+    }
+
+    int indexOf(Object v, int i, int end) {
+        if (data == null || !(v instanceof IntNum))
+            return super.indexOf(v, i, end);
+        long[] a = (long[]) data;
+        long x = ((IntNum) v).longValue();
+        for (; i < end; ++i)
+            if (a[i] == x)
+                return i;
+        return -1;
+    }
+
+    int hashAt(int i) {
+        long v = ((long[]) data)[i];
+        return (int) (v ^ (v >>> 32));
+    }
+
+    boolean eqAt(int i, Object v) {
+        if (data == null || !(v instanceof IntNum))
+            return super.eqAt(i, v);
+        return ((long[]) data)[i] == ((IntNum) v).longValue();
+    }
+
+    public AList reverse() {
+        int n;
+        if (data == null || (n = size - start) <= 0)
+            return super.reverse();
+        long[] a = (long[]) data, r = new long[n];
+        for (int i = 0, e = size - 1; i < n; ++i)
+            r[i] = a[e - i];
+        return new LongList(r, n);
+    }
+}
+
+/** Yeti core library - array of floats stored in double[]. */
+final class DoubleList extends NumList {
+    DoubleList(double[] data, int size) {
+        super(data, size);
+    }
+
+    Object box(int i) {
+        return new FloatNum(((double[]) data)[i]);
+    }
+
+    boolean set(int i, Object v) {
+        if (!(v instanceof FloatNum))
+            return false;
+        ((double[]) data)[i] = ((FloatNum) v).doubleValue();
+        return true;
+    }
+
+    Object alloc(int n) {
+        return new double[n];
+    }
+
+    NumList make(Object data, int size) {
+        return new DoubleList((double[]) data, size);
+    }
+
+    void sortData(Object data, int n) {
+        Arrays.sort((double[]) data, 0, n);
+    }
+
+    Num sum(int i) {
+        int cnt = size;
+        if (i >= cnt)
+            return IntNum._0;
+        double[] a = (double[]) data;
+        double s = 0;
+        for (; i < cnt; ++i)
+            s += a[i];
+        return new FloatNum(s);
+    }
+
+    int indexOf(Object v, int i, int end) {
+        if (data == null ||
+                !(v instanceof FloatNum) && !(v instanceof IntNum))
+            return super.indexOf(v, i, end);
+        double[] a = (double[]) data;
+        double x = ((Num) v).doubleValue();
+        for (; i < end; ++i)
+            if (a[i] == x)
+                return i;
+        return -1;
+    }
+
+    int hashAt(int i) {
+        return FloatNum.hashCode(((double[]) data)[i]);
+    }
+
+    public AList reverse() {
+        int n;
+        if (data == null || (n = size - start) <= 0)
+            return super.reverse();
+        double[] a = (double[]) data, r = new double[n];
+        for (int i = 0, e = size - 1; i < n; ++i)
+            r[i] = a[e - i];
+        return new DoubleList(r, n);
+    }
+}
@@ -32,7 +32,10 @@ package yeti.lang;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 
 public class PArray extends LList {
@@ -49,7 +52,7 @@ public class PArray extends LList {
     }
 
     public Object first() {
-        return new IntNum(Array.getLong(array, start));
+        return IntNum.valueOf(Array.getLong(array, start));
     }
 
     public AIter next() {
@@ -93,6 +96,32 @@ public class PArray extends LList {
         return length - start;
     }
 
+    // short, int and long arrays, others write through the list elements
+    AIter write(OutputStream out) throws IOException {
+        if (!(array instanceof int[] || array instanceof short[] ||
+              array instanceof long[]))
+            return super.write(out);
+        byte[] buf = new byte[Math.min(length - start, 65536)];
+        for (int i = start, n; i < length; i += n) {
+            n = Math.min(length - i, buf.length);
+            if (array instanceof int[]) {
+                int[] a = (int[]) array;
+                for (int j = 0; j < n; ++j)
+                    buf[j] = (byte) a[i + j];
+            } else if (array instanceof short[]) {
+                short[] a = (short[]) array;
+                for (int j = 0; j < n; ++j)
+                    buf[j] = (byte) a[i + j];
+            } else {
+                long[] a = (long[]) array;
+                for (int j = 0; j < n; ++j)
+                    buf[j] = (byte) a[i + j];
+            }
+            out.write(buf, 0, n);
+        }
+        return null;
+    }
+
     public static AList wrap(byte[] array) {
         return array == null || array.length == 0
             ? null : new ByteArray(0, array.length, array);
@@ -185,7 +214,7 @@ final class ByteArray extends PArray {
     }
 
     public Object first() {
-        return new IntNum(a[start] & 0xff);
+        return IntNum.valueOf(a[start] & 0xff);
     }
 
     PArray slice(int start, int length) {
@@ -195,13 +224,13 @@ final class ByteArray extends PArray {
     public void forEach(Object f_) {
         Fun f = (Fun) f_;
         for (int i = start, e = length; i < e; ++i)
-            f.apply(new IntNum(a[i]));
+            f.apply(IntNum.valueOf(a[i]));
     }
 
     public Object fold(Fun f_, Object v) {
         Fun f = (Fun) f_;
         for (int i = start, e = length; i < e; ++i)
-            v = f.apply(v, new IntNum(a[i]));
+            v = f.apply(v, IntNum.valueOf(a[i]));
         return v;
     }
 
@@ -216,13 +245,13 @@ final class ByteArray extends PArray {
         int b = ((IntNum) v).intValue();
         for (int i = start, e = length; i < e; ++i)
             if (a[i] == b)
-                return new IntNum(i - start);
+                return IntNum.valueOf(i - start);
         return null;
     }
 
     public AList find(Fun pred) {
         for (int i = start, e = length; i < e; ++i)
-            if (pred.apply(new IntNum(a[i])) == Boolean.TRUE)
+            if (pred.apply(IntNum.valueOf(a[i])) == Boolean.TRUE)
                 return new ByteArray(i, e, a);
         return null;
     }
@@ -257,3 +286,177 @@ final class ByteArray extends PArray {
         return new MList(this).asort(isLess);
     }
 }
+
+// Read-only byte list view over memory-mapped file. The file is mapped
+// in 1GB chunks, so positions are longs and files over 2GB are supported.
+// The int positions of PArray can't address that, so it's an LList.
+final class MappedBytes extends LList {
+    private static final int SHIFT = 30;
+    private static final int MASK = (1 << SHIFT) - 1;
+    private final ByteBuffer[] chunks;
+    private final long end;
+    private long pos;
+    private boolean iter;
+
+    private MappedBytes(long pos, long end, ByteBuffer[] chunks) {
+        super(null, null);
+        this.pos = pos;
+        this.end = end;
+        this.chunks = chunks;
+    }
+
+    static AList map(String name) throws IOException {
+        RandomAccessFile f = new RandomAccessFile(name, "r");
+        try {
+            FileChannel ch = f.getChannel();
+            long size = ch.size();
+            if (size <= 0)
+                return null;
+            ByteBuffer[] chunks =
+                new ByteBuffer[(int) ((size - 1) >>> SHIFT) + 1];
+            for (int i = 0; i < chunks.length; ++i) {
+                long off = (long) i << SHIFT;
+                chunks[i] = ch.map(FileChannel.MapMode.READ_ONLY, off,
+                                   Math.min(size - off, 1L << SHIFT));
+            }
+            return new MappedBytes(0, size, chunks);
+        } finally {
+            f.close(); // the mapping stays valid after closing
+        }
+    }
+
+    private int get(long i) {
+        return chunks[(int) (i >>> SHIFT)].get((int) i & MASK) & 0xff;
+    }
+
+    // copies bytes from..to into dst starting at offset
+    private void get(long from, long to, byte[] dst, int offset) {
+        while (from < to) {
+            ByteBuffer b = chunks[(int) (from >>> SHIFT)].duplicate();
+            int p = (int) from & MASK;
+            int n = (int) Math.min(to - from, b.limit() - p);
+            b.position(p);
+            b.get(dst, offset, n);
+            offset += n;
+            from += n;
+        }
+    }
+
+    private byte[] bytes() {
+        long n = end - pos;
+        if (n > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Mapped list of " + n
+                        + " bytes is too large to copy into array");
+        byte[] tmp = new byte[(int) n];
+        get(pos, end, tmp, 0);
+        return tmp;
+    }
+
+    public Object first() {
+        return IntNum.valueOf(get(pos));
+    }
+
+    public AIter next() {
+        if (iter)
+            return ++pos >= end ? null : this;
+        MappedBytes rest = (MappedBytes) rest();
+        if (rest != null)
+            rest.iter = true;
+        return rest;
+    }
+
+    public AIter dup() {
+        MappedBytes slice = new MappedBytes(pos, end, chunks);
+        slice.iter = true;
+        return slice;
+    }
+
+    public AList rest() {
+        long n;
+        return (n = pos + 1) >= end ? null : new MappedBytes(n, end, chunks);
+    }
+
+    public AList take(int from, int count) {
+        long f = pos + (from < 0 ? 0 : from), e = end;
+        if (count >= 0 && f + count < e)
+            e = f + count;
+        if (f >= e)
+            return null;
+        if (f == pos && e == end)
+            return this;
+        return new MappedBytes(f, e, chunks);
+    }
+
+    public long length() {
+        return end - pos;
+    }
+
+    public void forEach(Object f_) {
+        Fun f = (Fun) f_;
+        for (long i = pos; i < end; ++i)
+            f.apply(IntNum.valueOf(get(i)));
+    }
+
+    public Object fold(Fun f, Object v) {
+        for (long i = pos; i < end; ++i)
+            v = f.apply(v, IntNum.valueOf(get(i)));
+        return v;
+    }
+
+    public Num index(Object v) {
+        if (!(v instanceof IntNum))
+            return null;
+        long b = ((IntNum) v).longValue();
+        for (long i = pos; i < end; ++i)
+            if (get(i) == b)
+                return IntNum.valueOf(i - pos);
+        return null;
+    }
+
+    public AList find(Fun pred) {
+        for (long i = pos; i < end; ++i)
+            if (pred.apply(IntNum.valueOf(get(i))) == Boolean.TRUE)
+                return new MappedBytes(i, end, chunks);
+        return null;
+    }
+
+    public AList reverse() {
+        byte[] tmp = bytes();
+        for (int i = 0, j = tmp.length - 1; i < j; ++i, --j) {
+            byte t = tmp[i];
+            tmp[i] = tmp[j];
+            tmp[j] = t;
+        }
+        return new ByteArray(0, tmp.length, tmp);
+    }
+
+    public AList sort() {
+        long n = end - pos;
+        if (n > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Mapped list of " + n
+                        + " bytes is too large to sort");
+        long[] count = new long[256];
+        for (long i = pos; i < end; ++i)
+            ++count[get(i)];
+        byte[] tmp = new byte[(int) n];
+        for (int b = 0, i = 0; b < 256; ++b)
+            for (long c = count[b]; c > 0; --c)
+                tmp[i++] = (byte) b;
+        return new ByteArray(0, tmp.length, tmp);
+    }
+
+    public Object copy() {
+        byte[] tmp = bytes();
+        return new ByteArray(0, tmp.length, tmp);
+    }
+
+    AIter write(OutputStream out) throws IOException {
+        byte[] buf = new byte[(int) Math.min(end - pos, 65536)];
+        for (long i = pos, n; i < end; i += n) {
+            n = Math.min(end - i, buf.length);
+            get(i, i + n, buf, 0);
+            out.write(buf, 0, (int) n);
+        }
+        return null;
+    }
+}
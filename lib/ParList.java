@@ -0,0 +1,263 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti core library.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel versions of map, filter, fold and sort for lists and arrays.
+ * The elements are copied into array, which is split into chunks
+ * processed by ForkJoinPool. Lists shorter than the threshold (set by
+ * yeti.lang.ParList.threshold property) are processed sequentially.
+ * The functions given as arguments may be called from several threads.
+ */
+public final class ParList {
+    static final int THRESHOLD;
+    private static ForkJoinPool pool;
+
+    static {
+        int n = 4096;
+        try {
+            n = Integer.getInteger("yeti.lang.ParList.threshold", n)
+                       .intValue();
+        } catch (SecurityException ex) {
+        }
+        THRESHOLD = n < 2 ? 2 : n;
+    }
+
+    private ParList() {
+    }
+
+    static synchronized ForkJoinPool pool() {
+        if (pool == null)
+            pool = new ForkJoinPool();
+        return pool;
+    }
+
+    // chunk size giving few chunks per worker thread
+    private static int chunk(int n) {
+        int c = n / (pool().getParallelism() * 4);
+        return c < THRESHOLD ? THRESHOLD : c;
+    }
+
+    private static Object[] elements(AList l) {
+        if (l == null || l.isEmpty())
+            return null;
+        if (l instanceof AMList) {
+            AMList m = (AMList) l;
+            int n = m._size() - m.start;
+            if (n <= 0)
+                return null;
+            Object[] a = new Object[n];
+            System.arraycopy(m.array(), m.start, a, 0, n);
+            return a;
+        }
+        MList m = new MList(l);
+        if (m.array.length == m.size)
+            return m.array;
+        Object[] a = new Object[m.size];
+        System.arraycopy(m.array, 0, a, 0, a.length);
+        return a;
+    }
+
+    private static final class MapTask extends RecursiveAction {
+        private final Fun f;
+        private final Object[] src;
+        private final Object[] dst;
+        private final int from, to, chunk;
+
+        MapTask(Fun f, Object[] src, Object[] dst,
+                int from, int to, int chunk) {
+            this.f = f;
+            this.src = src;
+            this.dst = dst;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        protected void compute() {
+            if (to - from <= chunk) {
+                for (int i = from; i < to; ++i)
+                    dst[i] = f.apply(src[i]);
+                return;
+            }
+            int split = (from + to) >>> 1;
+            invokeAll(new MapTask(f, src, dst, from, split, chunk),
+                      new MapTask(f, src, dst, split, to, chunk));
+        }
+    }
+
+    private static final class FoldTask extends RecursiveTask {
+        private final Fun f;
+        private final Object v;
+        private final Object[] a;
+        private final int from, to, chunk;
+
+        FoldTask(Fun f, Object v, Object[] a,
+                 int from, int to, int chunk) {
+            this.f = f;
+            this.v = v;
+            this.a = a;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        protected Object compute() {
+            Object r = v;
+            if (to - from <= chunk) {
+                for (int i = from; i < to; ++i)
+                    r = f.apply(r, a[i]);
+                return r;
+            }
+            int split = (from + to) >>> 1;
+            FoldTask right = new FoldTask(f, v, a, split, to, chunk);
+            right.fork();
+            r = new FoldTask(f, v, a, from, split, chunk).compute();
+            return f.apply(r, right.join());
+        }
+    }
+
+    private static final class SortTask extends RecursiveAction {
+        private final Fun isLess;
+        private final Object[] a, tmp;
+        private final int from, to, chunk;
+
+        SortTask(Fun isLess, Object[] a, Object[] tmp,
+             int from, int to, int chunk) {
+            this.isLess = isLess;
+            this.a = a;
+            this.tmp = tmp;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        // same ping-pong merge sort as MList.sort, but forking the halves
+        protected void compute() {
+            if (to - from <= chunk) {
+                if (isLess != null)
+                    MList.sort(a, tmp, from, to, isLess);
+                else
+                    Arrays.sort(a, from, to);
+                return;
+            }
+            int split = (from + to) >>> 1;
+            invokeAll(new SortTask(isLess, tmp, a, from, split, chunk),
+                      new SortTask(isLess, tmp, a, split, to, chunk));
+            int i = from, j = split, k = from;
+            while (i < split && j < to) {
+                if (isLess != null ? isLess.apply(tmp[i], tmp[j])
+                                        == Boolean.TRUE
+                        : ((Comparable) tmp[i]).compareTo(tmp[j]) <= 0)
+                    a[k] = tmp[i++];
+                else
+                    a[k] = tmp[j++];
+                ++k;
+            }
+            if (i < split)
+                System.arraycopy(tmp, i, a, k, split - i);
+            else if (j < to)
+                System.arraycopy(tmp, j, a, k, to - j);
+        }
+    }
+
+    public static AList map(Fun f, AList l) {
+        Object[] a = elements(l);
+        if (a == null)
+            return null;
+        if (a.length <= THRESHOLD) {
+            for (int i = 0; i < a.length; ++i)
+                a[i] = f.apply(a[i]);
+        } else {
+            pool().invoke(new MapTask(f, a, a, 0, a.length,
+                                      chunk(a.length)));
+        }
+        return new MList(a);
+    }
+
+    public static AList filter(Fun f, AList l) {
+        Object[] a = elements(l);
+        if (a == null)
+            return null;
+        Object[] keep = new Object[a.length];
+        if (a.length <= THRESHOLD) {
+            for (int i = 0; i < a.length; ++i)
+                keep[i] = f.apply(a[i]);
+        } else {
+            pool().invoke(new MapTask(f, a, keep, 0, a.length,
+                                  chunk(a.length)));
+        }
+        int n = 0;
+        for (int i = 0; i < a.length; ++i)
+            if (keep[i] == Boolean.TRUE)
+                a[n++] = a[i];
+        if (n == 0)
+            return null;
+        MList r = new MList(a);
+        r.size = n;
+        return r;
+    }
+
+    public static Object fold(Fun f, Object v, AList l) {
+        Object[] a = elements(l);
+        if (a == null)
+            return v;
+        if (a.length <= THRESHOLD) {
+            for (int i = 0; i < a.length; ++i)
+                v = f.apply(v, a[i]);
+            return v;
+        }
+        return pool().invoke(new FoldTask(f, v, a, 0, a.length,
+                                      chunk(a.length)));
+    }
+
+    public static AList sort(AList l) {
+        return sort(null, l);
+    }
+
+    public static AList sort(Fun isLess, AList l) {
+        Object[] a = elements(l);
+        if (a == null)
+            return null;
+        if (a.length <= THRESHOLD) {
+            MList r = new MList(a);
+            return isLess == null ? r.asort() : r.asort(isLess);
+        }
+        pool().invoke(new SortTask(isLess, a, a.clone(), 0, a.length,
+                               chunk(a.length)));
+        return new MList(a);
+    }
+}
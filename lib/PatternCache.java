@@ -0,0 +1,172 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti core library.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Shared cache of compiled regular expressions used by the like, strSplit,
+ * substAll, matchAll and =~ functions. Patterns given as string literals
+ * are compiled once into constants anyway, but patterns built at runtime
+ * would be otherwise compiled again on each application.
+ *
+ * The cache holds at most given number of patterns (set by
+ * yeti.lang.PatternCache.size property, 512 by default), removing least
+ * recently used ones when it gets full. Lookups don't lock the cache.
+ */
+public final class PatternCache {
+    private static final class Entry {
+        final Pattern pattern;
+        volatile long used;
+
+        Entry(Pattern pattern) {
+            this.pattern = pattern;
+        }
+    }
+
+    private static final ConcurrentHashMap cache = new ConcurrentHashMap();
+    private static final AtomicLong clock = new AtomicLong();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+    private static volatile int maxSize;
+
+    static {
+        int n = 512;
+        try {
+            n = Integer.getInteger("yeti.lang.PatternCache.size", n)
+                       .intValue();
+        } catch (SecurityException ex) {
+        }
+        maxSize = n;
+    }
+
+    private PatternCache() {
+    }
+
+    /**
+     * Returns compiled pattern for the regex, using the DOTALL flag
+     * like all Yeti regex functions do.
+     */
+    public static Pattern compile(String regex) {
+        Entry e = (Entry) cache.get(regex);
+        if (e != null) {
+            e.used = clock.incrementAndGet();
+            hits.incrementAndGet();
+            return e.pattern;
+        }
+        misses.incrementAndGet();
+        Pattern p = Pattern.compile(regex, Pattern.DOTALL);
+        if (maxSize > 0) {
+            e = new Entry(p);
+            e.used = clock.incrementAndGet();
+            if (cache.putIfAbsent(regex, e) == null &&
+                    cache.size() > maxSize)
+                evict();
+        }
+        return p;
+    }
+
+    // Scanning is fine here, as it is done only after compiling a pattern,
+    // which is much slower than going through few hundred entries.
+    private static synchronized void evict() {
+        while (cache.size() > maxSize) {
+            Map.Entry oldest = null;
+            long min = Long.MAX_VALUE;
+            for (Iterator i = cache.entrySet().iterator(); i.hasNext();) {
+                Map.Entry me = (Map.Entry) i.next();
+                long used = ((Entry) me.getValue()).used;
+                if (used < min) {
+                    min = used;
+                    oldest = me;
+                }
+            }
+            if (oldest == null)
+                break;
+            if (cache.remove(oldest.getKey(), oldest.getValue()))
+                evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Sets the maximum number of cached patterns (0 disables caching).
+     */
+    public static void setMaxSize(int size) {
+        maxSize = size < 0 ? 0 : size;
+        evict();
+    }
+
+    /**
+     * Returns the maximum number of cached patterns.
+     */
+    public static int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of currently cached patterns.
+     */
+    public static int size() {
+        return cache.size();
+    }
+
+    /**
+     * Removes all patterns from the cache. Statistics are not reset.
+     */
+    public static void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Returns the number of lookups that found the pattern in the cache.
+     */
+    public static long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of lookups that had to compile the pattern.
+     */
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of patterns removed to keep the size limit.
+     */
+    public static long getEvictions() {
+        return evictions.get();
+    }
+}
@@ -39,9 +39,9 @@ class RandomInt extends Fun {
         Random rnd = initRandom();
         Num n = (Num) x;
         if (n.rCompare(0x7fffffffL) > 0)
-            return new IntNum(rnd.nextInt(n.intValue()));
+            return IntNum.valueOf(rnd.nextInt(n.intValue()));
         if (n.rCompare(Long.MAX_VALUE) > 0)
-            return new IntNum((long) (n.doubleValue() * rnd.nextDouble()));
+            return IntNum.valueOf((long) (n.doubleValue() * rnd.nextDouble()));
         // XXX
         return new FloatNum(Math.floor(n.doubleValue() * rnd.nextDouble()));
     }
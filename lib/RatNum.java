@@ -200,11 +200,11 @@ public final class RatNum extends Num {
     }
 
     public Num intDiv(int num) {
-        return new IntNum(numerator / denominator / num);
+        return IntNum.valueOf(numerator / denominator / num);
     }
 
     public Num intDivFrom(long num) {
-        return new IntNum(num / (numerator / denominator));
+        return IntNum.valueOf(num / (numerator / denominator));
     }
 
     public Num intDivFrom(BigInteger num) {
@@ -217,11 +217,11 @@ public final class RatNum extends Num {
     }
 
     public Num rem(int num) {
-        return new IntNum((numerator / denominator) % num);
+        return IntNum.valueOf((numerator / denominator) % num);
     }
 
     public Num remFrom(long num) {
-        return new IntNum(num % (numerator / denominator));
+        return IntNum.valueOf(num % (numerator / denominator));
     }
 
     public Num remFrom(BigInteger num) {
@@ -276,11 +276,11 @@ public final class RatNum extends Num {
     }
 
     public Num and(Num num) {
-        return new IntNum(num.longValue() & (numerator / denominator));
+        return IntNum.valueOf(num.longValue() & (numerator / denominator));
     }
 
     public Num and(BigInteger num) {
-        return new IntNum(num.longValue() & (numerator / denominator));
+        return IntNum.valueOf(num.longValue() & (numerator / denominator));
     }
 
     public Num or(Num num) {
@@ -288,7 +288,7 @@ public final class RatNum extends Num {
     }
 
     public Num or(long num) {
-        return new IntNum(num | (numerator / denominator));
+        return IntNum.valueOf(num | (numerator / denominator));
     }
 
     public Num xor(Num num) {
@@ -296,7 +296,7 @@ public final class RatNum extends Num {
     }
 
     public Num xor(long num) {
-        return new IntNum(num ^ (numerator / denominator));
+        return IntNum.valueOf(num ^ (numerator / denominator));
     }
 
     public RatNum reduce() {
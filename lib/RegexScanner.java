@@ -0,0 +1,158 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti core library.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Yeti core library - sequential regex matching over a string or
+ * a Reader. Reader input is read into a sliding buffer as needed,
+ * and text before the current position is dropped from the buffer.
+ *
+ * The owner of the scanner must synchronize on it.
+ */
+final class RegexScanner {
+    private static final int CHUNK = 8192;
+    // characters kept before the current position for lookbehind
+    private static final int BEHIND = 64;
+
+    private final Reader reader;
+    private final CharSequence text;
+    private final Matcher m;
+    private char[] chunk;
+    private long base; // offset of the buffer start in the whole input
+    private int pos;  // start of not yet consumed text
+    private int from; // where the next search starts
+    private boolean eof;
+
+    RegexScanner(Pattern p, CharSequence s) {
+        reader = null;
+        text = s;
+        eof = true;
+        m = p.matcher(s);
+        m.useTransparentBounds(true);
+        m.useAnchoringBounds(false);
+    }
+
+    RegexScanner(Pattern p, Reader r) {
+        reader = r;
+        text = new StringBuilder();
+        chunk = new char[CHUNK];
+        m = p.matcher(text);
+        m.useTransparentBounds(true);
+        m.useAnchoringBounds(false);
+    }
+
+    /**
+     * Finds next match, reading more input when the match could depend
+     * on it. The matcher has the found match after successful search.
+     */
+    boolean find() {
+        for (;;) {
+            int len = text.length();
+            if (from <= len) {
+                m.region(from, len);
+                if (m.find()) {
+                    if (eof || !m.hitEnd()) {
+                        // empty match is not repeated by following search
+                        from = m.end() == m.start() ? m.end() + 1 : m.end();
+                        return true;
+                    }
+                } else if (eof) {
+                    return false;
+                } else if (!m.hitEnd()) {
+                    // no match can start in the already scanned text
+                    from = len;
+                }
+            } else if (eof) {
+                return false;
+            }
+            fill();
+        }
+    }
+
+    Matcher matcher() {
+        return m;
+    }
+
+    /** Whether the last match is empty match at the input start. */
+    boolean emptyAtStart() {
+        return base + m.start() == 0 && m.end() == m.start();
+    }
+
+    /** Whether any input has been consumed by cut. */
+    boolean consumed() {
+        return base + pos != 0;
+    }
+
+    /** Returns text before the last match and consumes the match. */
+    String cut() {
+        String s = text.subSequence(pos, m.start()).toString();
+        pos = m.end();
+        return s;
+    }
+
+    /** Returns text after the last match, can be used after failed find. */
+    String remaining() {
+        return text.subSequence(pos, text.length()).toString();
+    }
+
+    /** Reads all remaining input into the buffer. */
+    synchronized void readAll() {
+        while (!eof)
+            fill();
+    }
+
+    private void fill() {
+        StringBuilder buf = (StringBuilder) text;
+        int drop = (pos < from ? pos : from - 1) - BEHIND;
+        if (drop > buf.length() >>> 1) {
+            buf.delete(0, drop);
+            base += drop;
+            pos -= drop;
+            from -= drop;
+        }
+        try {
+            int n = reader.read(chunk);
+            if (n < 0) {
+                eof = true;
+                reader.close();
+            } else {
+                buf.append(chunk, 0, n);
+            }
+        } catch (IOException ex) {
+            Unsafe.unsafeThrow(ex);
+        }
+    }
+}
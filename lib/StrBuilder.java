@@ -0,0 +1,83 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti core library.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang;
+
+/**
+ * Append-only string buffer, used by the stringBuilder function and by
+ * compiled code for string variables accumulated with s := s ^ x in loops.
+ * Appending is amortized O(1), and the flattened string is cached until
+ * the next modification, so repeated reads don't copy the buffer.
+ */
+public final class StrBuilder {
+    private final StringBuilder buf;
+    private String str;
+
+    public StrBuilder(String s) {
+        buf = new StringBuilder(s);
+        str = s;
+    }
+
+    public StrBuilder append(String s) {
+        if (s.length() != 0) {
+            buf.append(s);
+            str = null;
+        }
+        return this;
+    }
+
+    /*
+     * Compiled s := s ^ tail, where len is the buffer length before the
+     * tail was evaluated. Any append done to the variable by the tail
+     * expression itself is dropped, as the assignment overwrites it.
+     */
+    public StrBuilder append(int len, String s) {
+        if (buf.length() != len) {
+            buf.setLength(len);
+            str = null;
+        }
+        return append(s);
+    }
+
+    public int length() {
+        return buf.length();
+    }
+
+    public void clear() {
+        buf.setLength(0);
+        str = "";
+    }
+
+    public String toString() {
+        if (str == null)
+            str = buf.toString();
+        return str;
+    }
+}
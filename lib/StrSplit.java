@@ -37,7 +37,7 @@ public final class StrSplit extends Fun {
     private final Pattern p;
 
     public StrSplit(Object pattern) {
-        p = Pattern.compile((String) pattern, Pattern.DOTALL);
+        p = PatternCache.compile((String) pattern);
     }
 
     public Object apply(Object v) {
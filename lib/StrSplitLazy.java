@@ -0,0 +1,102 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti core library.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang;
+
+import java.io.Reader;
+import java.util.regex.Pattern;
+
+/** Yeti core library - lazily split list. */
+final class SplitList extends LList {
+    private final RegexScanner s;
+    private AList rest;
+    private boolean forced;
+
+    SplitList(String piece, RegexScanner s) {
+        super(piece, null);
+        this.s = s;
+    }
+
+    public AList rest() {
+        synchronized (s) {
+            if (!forced) {
+                rest = next(s);
+                forced = true;
+            }
+            return rest;
+        }
+    }
+
+    // Follows the Pattern.split rules, trailing empty strings are left out
+    // by looking ahead to next non-empty piece before giving out empty ones.
+    static AList next(RegexScanner s) {
+        int empty = 0;
+        AList r;
+        for (;;) {
+            if (s.find()) {
+                if (s.emptyAtStart())
+                    continue;
+                String piece = s.cut();
+                if (piece.length() == 0) {
+                    ++empty;
+                    continue;
+                }
+                r = new SplitList(piece, s);
+            } else {
+                boolean whole = !s.consumed();
+                String piece = s.remaining();
+                if (piece.length() == 0 && !whole)
+                    return null;
+                r = new LList(piece, null);
+            }
+            while (--empty >= 0)
+                r = new LList("", r);
+            return r;
+        }
+    }
+}
+
+public final class StrSplitLazy extends Fun {
+    private final Pattern p;
+
+    public StrSplitLazy(Object pattern) {
+        p = PatternCache.compile((String) pattern);
+    }
+
+    public Object apply(Object v) {
+        return SplitList.next(new RegexScanner(p, (CharSequence) v));
+    }
+
+    static AList read(RegexScanner s) {
+        synchronized (s) {
+            return SplitList.next(s);
+        }
+    }
+}
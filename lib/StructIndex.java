@@ -0,0 +1,88 @@
+// ex: se sts=4 sw=4 expandtab:
+
+/*
+ * Yeti core library - structure field index.
+ *
+ * Copyright (c) 2026 Madis Janson
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package yeti.lang;
+
+import java.io.Serializable;
+
+/**
+ * Open addressing hash table from interned field names to field indexes,
+ * shared by all structures with the same field names array.
+ * The compiler creates one per structure shape as a class constant,
+ * so the field lookup by name doesn't need per-instance maps or
+ * linear scan of the field names.
+ */
+public final class StructIndex implements Serializable {
+    final String[] names;
+    private final String[] keys;
+    private final int[] slots;
+    private final int shift;
+
+    /**
+     * Creates index for given interned field names.
+     */
+    public StructIndex(String[] names) {
+        this.names = names;
+        int bits = 2;
+        while (1 << bits < names.length * 2)
+            ++bits;
+        keys = new String[1 << bits];
+        slots = new int[keys.length];
+        shift = 32 - bits;
+        for (int i = 0; i < names.length; ++i) {
+            int h = hash(names[i]);
+            while (keys[h] != null)
+                h = h + 1 & keys.length - 1;
+            keys[h] = names[i];
+            slots[h] = i;
+        }
+    }
+
+    // field names often differ only by last characters, giving
+    // consecutive String hash codes, so these are scrambled first
+    private int hash(String name) {
+        return name.hashCode() * 0x9e3779b9 >>> shift;
+    }
+
+    /**
+     * Returns index of the field with given interned name,
+     * or -1 when the structure has no such field.
+     */
+    public int index(String field) {
+        String[] k = keys;
+        for (int h = hash(field);; h = h + 1 & k.length - 1) {
+            String name = k[h];
+            if (name == field)
+                return slots[h];
+            if (name == null)
+                return -1;
+        }
+    }
+}
@@ -36,7 +36,7 @@ public final class SubstAll extends Fun2 {
     private final Pattern p;
 
     public SubstAll(Object pattern) {
-        p = Pattern.compile((String) pattern, Pattern.DOTALL);
+        p = PatternCache.compile((String) pattern);
     }
 
     public Object apply(Object replacement, Object str) {